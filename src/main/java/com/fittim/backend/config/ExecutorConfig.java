@@ -0,0 +1,77 @@
+package com.fittim.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded worker pools for work that runs off the request thread.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Pool for recommend's weather lookup, which runs while the request thread queries the wardrobe.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor fitExecutor(@Value("${fit.executor.pool-size:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 16);
+        executor.setThreadNamePrefix("fit-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Image storage/processing pool. When the queue is full the submitting request thread
+     * does the work itself, which throttles large bulk uploads instead of failing them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageExecutor(@Value("${image.executor.pool-size:4}") int poolSize,
+            @Value("${image.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("image-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thumbnail/medium variant generation. Runs after the upload has returned, so a full queue
+     * rejects instead of running on the caller; the backlog is exported as a gauge.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageVariantExecutor(@Value("${image.variants.pool-size:2}") int poolSize,
+            @Value("${image.variants.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Dominant-color extraction; CPU bound, so sized to the cores it may use.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor colorExecutor(@Value("${image.colors.pool-size:2}") int poolSize,
+            @Value("${image.colors.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-color-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,5 +1,7 @@
 package com.fittim.backend.config;
 
+import com.fittim.backend.entity.User;
+import com.fittim.backend.service.RevokedSessions;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -25,22 +27,49 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration:3600000}") // 1 hour
     private long validityInMilliseconds;
 
+    // Trust the signed id, email and role claims instead of loading the user on every request.
+    // A role change or deleted account then takes effect when the token expires.
+    @Value("${jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String SESSION_CLAIM = "sid";
+
     private Key key;
 
+    // Immutable once built, so one instance serves every request
+    private JwtParser parser;
+
+    private VerifiedTokenCache verifiedTokens;
+
     private final UserDetailsService userDetailsService;
+    private final RevokedSessions revokedSessions;
 
-    public JwtTokenProvider(UserDetailsService userDetailsService) {
+    public JwtTokenProvider(UserDetailsService userDetailsService, RevokedSessions revokedSessions) {
         this.userDetailsService = userDetailsService;
+        this.revokedSessions = revokedSessions;
     }
 
     @PostConstruct
     protected void init() {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
-    public String createToken(String email, String role) {
+    /**
+     * @param sessionId the login session the token belongs to, so revoking the session
+     *                  (logout, refresh-token reuse) also rejects its unexpired access tokens
+     */
+    public String createToken(Long userId, String email, String role, String sessionId) {
         Claims claims = Jwts.claims().setSubject(email);
-        claims.put("role", role);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ROLE_CLAIM, role);
+        claims.put(SESSION_CLAIM, sessionId);
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + validityInMilliseconds);
@@ -53,13 +82,55 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUsername(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid, expired or
+     * belongs to a revoked session.
+     */
+    public Claims parseClaims(String token) {
+        Claims claims = verify(token);
+        if (claims != null && revokedSessions.isRevoked(claims.get(SESSION_CLAIM, String.class))) {
+            log.warn("Rejected access token of revoked session for {}", claims.getSubject());
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * A token verified recently is answered from the cache without checking its signature again.
+     */
+    private Claims verify(String token) {
+        if (verifiedTokens.enabled()) {
+            Claims cached = verifiedTokens.get(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (verifiedTokens.enabled()) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public Authentication getAuthentication(Claims claims) {
+        JwtPrincipal principal = statelessPrincipal && claims.get(USER_ID_CLAIM) != null
+                ? new JwtPrincipal(claims.get(USER_ID_CLAIM, Long.class), claims.getSubject(),
+                        claims.get(ROLE_CLAIM, String.class))
+                : loadPrincipal(claims.getSubject()); // also covers tokens issued without the id claim
+        return new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities());
     }
 
-    public String getUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    private JwtPrincipal loadPrincipal(String email) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        if (userDetails instanceof User user) {
+            return JwtPrincipal.from(user);
+        }
+        throw new IllegalStateException("Unexpected user details type: " + userDetails.getClass().getName());
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -69,14 +140,4 @@ public class JwtTokenProvider {
         }
         return null;
     }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
-    }
 }
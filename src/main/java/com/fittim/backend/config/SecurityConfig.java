@@ -89,7 +89,7 @@ public class SecurityConfig {
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "*"));
 
         // Exposed Headers
-        configuration.setExposedHeaders(Collections.singletonList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Next-Cursor", "X-Duplicate-Of"));
 
         // Allow Credentials
         configuration.setAllowCredentials(true);
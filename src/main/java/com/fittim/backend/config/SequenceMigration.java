@@ -0,0 +1,48 @@
+package com.fittim.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves id sequences past rows inserted while the tables still used IDENTITY columns.
+ * ddl-auto creates the sequences starting at 1, so on a database with existing rows each
+ * sequence is restarted at MAX(id) + 1 before anything else inserts. A no-op on fresh databases.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // before TestUserInitializer inserts
+@RequiredArgsConstructor
+public class SequenceMigration implements ApplicationRunner {
+
+    // table -> sequence, as mapped on the entities
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "wardrobe_item", "wardrobe_item_seq",
+            "fit_history", "fit_history_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SEQUENCES.forEach(this::migrate);
+    }
+
+    private void migrate(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)",
+                Long.class, sequence);
+        if (maxId != null && next != null && next <= maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+            log.info("Restarted {} at {} after existing {} rows", sequence, maxId + 1, table);
+        }
+    }
+}
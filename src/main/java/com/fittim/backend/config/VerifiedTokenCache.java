@@ -0,0 +1,69 @@
+package com.fittim.backend.config;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Claims of recently verified tokens, so a client repeating its token skips the signature
+ * check and JSON parsing. Keyed by the token string itself: hashing it on every request
+ * would cost about as much as the HMAC check the cache saves. Entries are served only until
+ * the token's own expiry, so no token outlives its validity here. When full, expired entries
+ * are swept (at most once a second) and new tokens stay uncached until there is room again.
+ */
+final class VerifiedTokenCache {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long nextSweep;
+
+    VerifiedTokenCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("jwt.verified-cache-size must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    boolean enabled() {
+        return maxSize > 0;
+    }
+
+    Claims get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            if (now >= nextSweep) {
+                nextSweep = now + SWEEP_INTERVAL_MILLIS;
+                entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            }
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(token, new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
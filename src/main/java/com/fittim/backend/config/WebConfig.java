@@ -15,11 +15,5 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true); // 쿠키/인증 정보 포함 허용
     }
 
-    @Override
-    public void addResourceHandlers(
-            org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry registry) {
-        String uploadPath = System.getProperty("user.dir") + "/uploads/";
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("file:" + uploadPath);
-    }
+    // /images/** is served by ImageController (caching, ranges, sendfile)
 }
@@ -1,16 +1,18 @@
 package com.fittim.backend.controller;
 
+import com.fittim.backend.config.JwtPrincipal;
 import com.fittim.backend.dto.FitRequestDto;
 import com.fittim.backend.dto.FitResponseDto;
 import com.fittim.backend.service.FitService;
+import com.fittim.backend.service.ResourceVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/fits")
@@ -18,19 +20,32 @@ import org.springframework.web.bind.annotation.RestController;
 public class FitController {
 
     private final FitService fitService;
+    private final ResourceVersionService resourceVersions;
 
     @PostMapping("/recommend")
     public ResponseEntity<FitResponseDto> recommend(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestBody FitRequestDto request) {
-        FitResponseDto recommendation = fitService.recommend(userDetails.getUsername(), request);
+        FitResponseDto recommendation = fitService.recommend(principal.id(), request);
         return ResponseEntity.ok(recommendation);
     }
 
+    @PostMapping("/{id}/select")
+    public ResponseEntity<FitResponseDto> selectAlternative(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @org.springframework.web.bind.annotation.PathVariable Long id) {
+        return ResponseEntity.ok(fitService.selectAlternative(principal.id(), id));
+    }
+
     @org.springframework.web.bind.annotation.GetMapping("/history")
     public ResponseEntity<java.util.List<com.fittim.backend.dto.FitHistoryDto>> getFitHistory(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(fitService.getFitHistory(userDetails.getUsername()));
+            @AuthenticationPrincipal JwtPrincipal principal, WebRequest webRequest) {
+        String etag = resourceVersions.etag(principal.id(), ResourceVersionService.Resource.HISTORY);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(ResourceVersionService.CACHE_CONTROL)
+                .body(fitService.getFitHistory(principal.id()));
     }
 
     @org.springframework.web.bind.annotation.GetMapping("/{id}")
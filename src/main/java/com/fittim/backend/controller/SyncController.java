@@ -0,0 +1,30 @@
+package com.fittim.backend.controller;
+
+import com.fittim.backend.config.JwtPrincipal;
+import com.fittim.backend.dto.SyncChangesDto;
+import com.fittim.backend.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * Wardrobe and history changes after {@code since}; without it, the full current state.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChangesDto> changes(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(syncService.changes(principal.id(), since));
+    }
+}
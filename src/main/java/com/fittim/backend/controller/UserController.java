@@ -1,14 +1,16 @@
 package com.fittim.backend.controller;
 
+import com.fittim.backend.config.JwtPrincipal;
 import com.fittim.backend.dto.UserProfileDto;
+import com.fittim.backend.service.ResourceVersionService;
 import com.fittim.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,26 +18,32 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final ResourceVersionService resourceVersions;
 
     @GetMapping("/me")
-    public ResponseEntity<UserProfileDto> getMyProfile(@AuthenticationPrincipal UserDetails userDetails) {
-        UserProfileDto profile = userService.getMyProfile(userDetails.getUsername());
-        return ResponseEntity.ok(profile);
+    public ResponseEntity<UserProfileDto> getMyProfile(@AuthenticationPrincipal JwtPrincipal principal,
+            WebRequest webRequest) {
+        String etag = resourceVersions.etag(principal.id(), ResourceVersionService.Resource.PROFILE);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        UserProfileDto profile = userService.getMyProfile(principal.id());
+        return ResponseEntity.ok().eTag(etag).cacheControl(ResourceVersionService.CACHE_CONTROL).body(profile);
     }
 
     @org.springframework.web.bind.annotation.PutMapping("/me")
     public ResponseEntity<UserProfileDto> updateProfile(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @org.springframework.web.bind.annotation.RequestBody com.fittim.backend.dto.UserProfileUpdateDto dto) {
-        UserProfileDto updatedProfile = userService.updateProfile(userDetails.getUsername(), dto);
+        UserProfileDto updatedProfile = userService.updateProfile(principal.id(), dto);
         return ResponseEntity.ok(updatedProfile);
     }
 
     @org.springframework.web.bind.annotation.PatchMapping("/me")
     public ResponseEntity<UserProfileDto> patchProfile(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @org.springframework.web.bind.annotation.RequestBody com.fittim.backend.dto.UserProfileUpdateDto dto) {
-        UserProfileDto updatedProfile = userService.patchProfile(userDetails.getUsername(), dto);
+        UserProfileDto updatedProfile = userService.patchProfile(principal.id(), dto);
         return ResponseEntity.ok(updatedProfile);
     }
 }
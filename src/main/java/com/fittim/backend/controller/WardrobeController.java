@@ -1,15 +1,24 @@
 package com.fittim.backend.controller;
 
+import com.fittim.backend.config.JwtPrincipal;
+import com.fittim.backend.dto.WardrobeBatchOperation;
+import com.fittim.backend.dto.WardrobeBatchResultDto;
+import com.fittim.backend.dto.WardrobeBulkItemRequest;
+import com.fittim.backend.dto.WardrobeBulkResultDto;
 import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.dto.WardrobePageDto;
+import com.fittim.backend.dto.WardrobeStatsDto;
+import com.fittim.backend.dto.WardrobeUploadResult;
 import com.fittim.backend.entity.Category;
 import com.fittim.backend.entity.Season;
+import com.fittim.backend.service.ResourceVersionService;
 import com.fittim.backend.service.WardrobeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -20,76 +29,153 @@ import java.util.List;
 @RequiredArgsConstructor
 public class WardrobeController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String DUPLICATE_OF_HEADER = "X-Duplicate-Of";
+
     private final WardrobeService wardrobeService;
+    private final ResourceVersionService resourceVersions;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<WardrobeDto> uploadItem(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @ModelAttribute com.fittim.backend.dto.WardrobeItemRequest request) throws IOException {
-        WardrobeDto savedItem = wardrobeService.uploadItem(
-                userDetails.getUsername(),
+        WardrobeUploadResult result = wardrobeService.uploadItem(
+                principal.id(),
                 request);
-        return ResponseEntity.ok(savedItem);
+        return withDuplicateHeader(result);
+    }
+
+    /**
+     * Flags a near-duplicate upload without changing the response body.
+     */
+    static ResponseEntity<WardrobeDto> withDuplicateHeader(WardrobeUploadResult result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.duplicateOf() != null) {
+            response.header(DUPLICATE_OF_HEADER, result.duplicateOf().toString());
+        }
+        return response.body(result.item());
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<WardrobeBulkResultDto>> uploadItems(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestPart("images") List<MultipartFile> images,
+            @RequestPart("items") List<WardrobeBulkItemRequest> items) {
+        return ResponseEntity.ok(wardrobeService.uploadItems(principal.id(), images, items));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<WardrobeBatchResultDto>> applyBatch(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @org.springframework.web.bind.annotation.RequestBody List<WardrobeBatchOperation> operations) {
+        return ResponseEntity.ok(wardrobeService.applyBatch(principal.id(), operations));
     }
 
     @org.springframework.web.bind.annotation.PutMapping("/{id}")
     public ResponseEntity<WardrobeDto> updateItem(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable Long id,
             @org.springframework.web.bind.annotation.RequestBody com.fittim.backend.dto.WardrobeUpdateDto dto) {
-        WardrobeDto updatedItem = wardrobeService.updateItem(id, dto, userDetails.getUsername());
+        WardrobeDto updatedItem = wardrobeService.updateItem(id, dto, principal.id());
         return ResponseEntity.ok(updatedItem);
     }
 
     @org.springframework.web.bind.annotation.PatchMapping("/{id}")
     public ResponseEntity<WardrobeDto> patchItem(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable Long id,
             @org.springframework.web.bind.annotation.RequestBody com.fittim.backend.dto.WardrobeUpdateDto dto) {
-        WardrobeDto updatedItem = wardrobeService.patchItem(id, dto, userDetails.getUsername());
+        WardrobeDto updatedItem = wardrobeService.patchItem(id, dto, principal.id());
         return ResponseEntity.ok(updatedItem);
     }
 
     @org.springframework.web.bind.annotation.DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable Long id) {
-        wardrobeService.deleteItem(id, userDetails.getUsername());
+        wardrobeService.deleteItem(id, principal.id());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping
     public ResponseEntity<List<WardrobeDto>> getMyWardrobe(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String season) {
+            @RequestParam(required = false) String season,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = resourceVersions.etag(principal.id(), ResourceVersionService.Resource.WARDROBE);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 without touching the database
+        }
+
+        Category catEnum = categoryFilter(category);
+        Season seaEnum = seasonFilter(season);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag)
+                .cacheControl(ResourceVersionService.CACHE_CONTROL);
+        if (cursor == null && size == null) {
+            // Legacy clients: whole wardrobe in one response
+            List<WardrobeDto> items = wardrobeService.getMyWardrobe(principal.id(), catEnum, seaEnum);
+            return response.body(items);
+        }
+
+        WardrobePageDto page = wardrobeService.getMyWardrobePage(principal.id(), catEnum, seaEnum,
+                cursor, size);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 
-        Category catEnum = null;
+    @GetMapping("/search")
+    public ResponseEntity<List<WardrobeDto>> search(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String season,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(wardrobeService.search(principal.id(), q, categoryFilter(category),
+                seasonFilter(season), size));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<WardrobeStatsDto> getStats(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ResponseEntity.ok(wardrobeService.getStats(principal.id()));
+    }
+
+    @GetMapping("/recent")
+    public ResponseEntity<List<WardrobeDto>> getRecentItems(@AuthenticationPrincipal JwtPrincipal principal,
+            WebRequest webRequest) {
+        String etag = resourceVersions.etag(principal.id(), ResourceVersionService.Resource.WARDROBE);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<WardrobeDto> items = wardrobeService.getRecentItems(principal.id());
+        return ResponseEntity.ok().eTag(etag).cacheControl(ResourceVersionService.CACHE_CONTROL).body(items);
+    }
+
+    private static Category categoryFilter(String category) {
         if (category != null && !category.equalsIgnoreCase("ALL")) {
             try {
-                catEnum = Category.valueOf(category.toUpperCase());
+                return Category.valueOf(category.toUpperCase());
             } catch (IllegalArgumentException e) {
                 // Ignore invalid category or handle error? For simple filtering, ignore or
                 // treat as null
             }
         }
+        return null;
+    }
 
-        Season seaEnum = null;
+    private static Season seasonFilter(String season) {
         if (season != null && !season.equalsIgnoreCase("ALL")) {
             try {
-                seaEnum = Season.valueOf(season.toUpperCase());
+                return Season.valueOf(season.toUpperCase());
             } catch (IllegalArgumentException e) {
                 // Ignore
             }
         }
-
-        List<WardrobeDto> items = wardrobeService.getMyWardrobe(userDetails.getUsername(), catEnum, seaEnum);
-        return ResponseEntity.ok(items);
-    }
-
-    @GetMapping("/recent")
-    public ResponseEntity<List<WardrobeDto>> getRecentItems(@AuthenticationPrincipal UserDetails userDetails) {
-        List<WardrobeDto> items = wardrobeService.getRecentItems(userDetails.getUsername());
-        return ResponseEntity.ok(items);
+        return null;
     }
 }
@@ -0,0 +1,66 @@
+package com.fittim.backend.controller;
+
+import com.fittim.backend.config.JwtPrincipal;
+import com.fittim.backend.dto.UploadSessionDto;
+import com.fittim.backend.dto.UploadSessionRequest;
+import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Resumable upload protocol: create a session, PUT raw chunks at offsets, GET the session
+ * to learn where to resume, then complete it to create the wardrobe item.
+ */
+@RestController
+@RequestMapping("/api/wardrobe/uploads")
+@RequiredArgsConstructor
+public class WardrobeUploadController {
+
+    private final UploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionDto> createSession(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestBody UploadSessionRequest request) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.create(principal.id(), request));
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDto> writeChunk(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable String id,
+            @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.writeChunk(principal.id(), id, offset,
+                request.getInputStream()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UploadSessionDto> getSession(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable String id) {
+        return ResponseEntity.ok(uploadSessionService.status(principal.id(), id));
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<WardrobeDto> complete(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable String id) throws IOException {
+        return WardrobeController.withDuplicateHeader(uploadSessionService.complete(principal.id(), id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abort(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable String id) throws IOException {
+        uploadSessionService.abort(principal.id(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
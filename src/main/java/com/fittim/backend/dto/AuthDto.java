@@ -24,4 +24,8 @@ public class AuthDto {
                         @NotBlank @Email String email,
                         @NotBlank String password) {
         }
+
+        public record RefreshRequest(
+                        @NotBlank String refreshToken) {
+        }
 }
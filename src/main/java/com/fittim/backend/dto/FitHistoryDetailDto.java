@@ -1,7 +1,9 @@
 package com.fittim.backend.dto;
 
 import com.fittim.backend.entity.FitHistory;
+
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 public record FitHistoryDetailDto(
         Long id,
@@ -16,6 +18,24 @@ public record FitHistoryDetailDto(
         WardrobeDto outer) {
 
     public static FitHistoryDetailDto from(FitHistory entity) {
+        return of(entity,
+                WardrobeDto.from(entity.getTop()),
+                WardrobeDto.from(entity.getBottom()),
+                entity.getOuter() != null ? WardrobeDto.from(entity.getOuter()) : null);
+    }
+
+    /**
+     * @param items projected wardrobe DTOs keyed by item id
+     */
+    public static FitHistoryDetailDto from(FitHistory entity, Map<Long, WardrobeDto> items) {
+        return of(entity,
+                items.get(entity.getTop().getId()),
+                items.get(entity.getBottom().getId()),
+                entity.getOuter() != null ? items.get(entity.getOuter().getId()) : null);
+    }
+
+    private static FitHistoryDetailDto of(FitHistory entity, WardrobeDto top, WardrobeDto bottom,
+            WardrobeDto outer) {
         String displayTitle = "오늘의 " + (entity.getPlace() != null ? entity.getPlace() : "데일리") + " 룩";
 
         return new FitHistoryDetailDto(
@@ -26,8 +46,8 @@ public record FitHistoryDetailDto(
                 entity.getSeason(),
                 entity.getRecommendationReason(),
                 entity.getCreatedAt().format(DateTimeFormatter.ISO_DATE_TIME),
-                WardrobeDto.from(entity.getTop()),
-                WardrobeDto.from(entity.getBottom()),
-                entity.getOuter() != null ? WardrobeDto.from(entity.getOuter()) : null);
+                top,
+                bottom,
+                outer);
     }
 }
@@ -2,6 +2,7 @@ package com.fittim.backend.dto;
 
 import com.fittim.backend.entity.FitHistory;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public record FitHistoryDto(
@@ -13,14 +14,22 @@ public record FitHistoryDto(
         String imageUrl, // Representative image (Outer > Top)
         String reason,
         String createdAt) {
+
+    /**
+     * Row constructor for the FitHistoryRepository join projection.
+     */
+    public FitHistoryDto(Long id, String place, String mood, String season, String imageUrl, String reason,
+            LocalDateTime createdAt) {
+        this(id, displayTitle(place), place, mood, season, imageUrl, reason,
+                createdAt.format(DateTimeFormatter.ISO_DATE_TIME));
+    }
+
     public static FitHistoryDto from(FitHistory entity) {
         String mainImageUrl = (entity.getOuter() != null) ? entity.getOuter().getImageUrl()
                 : entity.getTop().getImageUrl();
-        String displayTitle = "오늘의 " + (entity.getPlace() != null ? entity.getPlace() : "데일리") + " 룩";
-
         return new FitHistoryDto(
                 entity.getId(),
-                displayTitle,
+                displayTitle(entity.getPlace()),
                 entity.getPlace(),
                 entity.getMood(),
                 entity.getSeason(),
@@ -28,4 +37,8 @@ public record FitHistoryDto(
                 entity.getRecommendationReason(),
                 entity.getCreatedAt().format(DateTimeFormatter.ISO_DATE_TIME));
     }
+
+    private static String displayTitle(String place) {
+        return "오늘의 " + (place != null ? place : "데일리") + " 룩";
+    }
 }
@@ -4,5 +4,16 @@ public record FitRequestDto(
                 String season,
                 String place,
                 String mood,
-                String weather) {
+                String weather,
+                Double lat,
+                Double lon,
+                Integer count) {
+
+        public boolean hasLocation() {
+                return lat != null && lon != null;
+        }
+
+        public int requestedCount() {
+                return count != null ? count : 1;
+        }
 }
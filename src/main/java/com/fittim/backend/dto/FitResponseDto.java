@@ -2,23 +2,29 @@ package com.fittim.backend.dto;
 
 import com.fittim.backend.entity.WardrobeItem;
 
+import java.util.List;
+
 public record FitResponseDto(
+        Long id, // FitHistory id, used to select an alternative
         String place,
         String mood,
         String season,
         WardrobeDto top,
         WardrobeDto bottom,
         WardrobeDto outer,
-        String reason) {
-    public static FitResponseDto of(String place, String mood, String season, WardrobeItem top, WardrobeItem bottom,
-            WardrobeItem outer, String reason) {
+        String reason,
+        List<FitResponseDto> alternatives) {
+    public static FitResponseDto of(Long id, String place, String mood, String season, WardrobeItem top,
+            WardrobeItem bottom, WardrobeItem outer, String reason, List<FitResponseDto> alternatives) {
         return new FitResponseDto(
+                id,
                 place,
                 mood,
                 season,
                 top != null ? WardrobeDto.from(top) : null,
                 bottom != null ? WardrobeDto.from(bottom) : null,
                 outer != null ? WardrobeDto.from(outer) : null,
-                reason);
+                reason,
+                alternatives);
     }
 }
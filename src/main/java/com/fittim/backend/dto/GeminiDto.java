@@ -28,4 +28,8 @@ public class GeminiDto {
     // Internal recommendation result structure
     public record RecommendationResult(Long topId, Long bottomId, Long outerId, Long shoesId, String reason) {
     }
+
+    // Ranked alternatives returned by a single call
+    public record RecommendationResults(List<RecommendationResult> outfits) {
+    }
 }
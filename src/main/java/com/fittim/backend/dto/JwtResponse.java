@@ -1,4 +1,4 @@
 package com.fittim.backend.dto;
 
-public record JwtResponse(String accessToken) {
+public record JwtResponse(String accessToken, String refreshToken) {
 }
@@ -0,0 +1,12 @@
+package com.fittim.backend.dto;
+
+import java.util.List;
+
+public record SyncChangesDto(
+        long version, // pass as "since" on the next sync
+        boolean full, // true when no "since" was given: the lists are the complete state
+        List<WardrobeDto> wardrobe, // created or updated items
+        List<Long> deletedWardrobeIds,
+        List<FitHistoryDto> history, // newly selected outfits
+        List<Long> removedHistoryIds) { // replaced by another alternative
+}
@@ -0,0 +1,13 @@
+package com.fittim.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param offset bytes received so far; the next chunk should start here
+ */
+public record UploadSessionDto(
+        String id,
+        long offset,
+        long size,
+        LocalDateTime expiresAt) {
+}
@@ -0,0 +1,21 @@
+package com.fittim.backend.dto;
+
+import java.util.List;
+
+/**
+ * Starts a resumable upload: the image's declared size plus the item metadata applied on completion.
+ */
+public record UploadSessionRequest(
+        String filename,
+        Long size,
+        String category,
+        String season,
+        String name,
+        String brand,
+        List<String> seasons,
+        List<String> colors) {
+
+    public WardrobeBulkItemRequest toItemRequest() {
+        return new WardrobeBulkItemRequest(category, season, name, brand, seasons, colors);
+    }
+}
@@ -0,0 +1,7 @@
+package com.fittim.backend.dto;
+
+public record WardrobeBatchOperation(
+        String op, // "patch" or "delete"
+        Long id,
+        WardrobeUpdateDto patch) { // fields to change for "patch"; nulls are left as they are
+}
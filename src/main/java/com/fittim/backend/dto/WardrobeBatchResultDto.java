@@ -0,0 +1,17 @@
+package com.fittim.backend.dto;
+
+public record WardrobeBatchResultDto(
+        int index, // position in the request
+        Long id,
+        boolean success,
+        WardrobeDto item, // patched item; null for deletes and failures
+        String error) {
+
+    public static WardrobeBatchResultDto success(int index, Long id, WardrobeDto item) {
+        return new WardrobeBatchResultDto(index, id, true, item, null);
+    }
+
+    public static WardrobeBatchResultDto failure(int index, Long id, String error) {
+        return new WardrobeBatchResultDto(index, id, false, null, error);
+    }
+}
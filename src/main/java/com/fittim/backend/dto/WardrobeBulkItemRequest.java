@@ -0,0 +1,15 @@
+package com.fittim.backend.dto;
+
+import java.util.List;
+
+/**
+ * Metadata for one image of a bulk upload; matched to the images part by position.
+ */
+public record WardrobeBulkItemRequest(
+        String category,
+        String season,
+        String name,
+        String brand,
+        List<String> seasons,
+        List<String> colors) {
+}
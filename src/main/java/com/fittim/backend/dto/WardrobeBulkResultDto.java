@@ -0,0 +1,17 @@
+package com.fittim.backend.dto;
+
+public record WardrobeBulkResultDto(
+        int index, // position in the request
+        boolean success,
+        WardrobeDto item,
+        Long duplicateOf, // id of an existing item with a near-identical image
+        String error) {
+
+    public static WardrobeBulkResultDto success(int index, WardrobeDto item, Long duplicateOf) {
+        return new WardrobeBulkResultDto(index, true, item, duplicateOf, null);
+    }
+
+    public static WardrobeBulkResultDto failure(int index, String error) {
+        return new WardrobeBulkResultDto(index, false, null, null, error);
+    }
+}
@@ -12,6 +12,8 @@ public record WardrobeDto(
         Category category,
         Season season,
         String imageUrl,
+        String thumbnailUrl,
+        String mediumUrl,
         String name,
         String brand,
         List<String> seasons,
@@ -23,10 +25,27 @@ public record WardrobeDto(
                 item.getCategory(),
                 item.getSeason(),
                 item.getImageUrl(),
+                item.getThumbnailUrl(),
+                item.getMediumUrl(),
                 item.getName(),
                 item.getBrand(),
                 item.getSeasons(),
                 item.getColors(),
                 item.getCreatedAt());
     }
+
+    public static WardrobeDto of(WardrobeRow row, List<String> seasons, List<String> colors) {
+        return new WardrobeDto(
+                row.id(),
+                row.category(),
+                row.season(),
+                row.imageUrl(),
+                row.thumbnailUrl(),
+                row.mediumUrl(),
+                row.name(),
+                row.brand(),
+                seasons,
+                colors,
+                row.createdAt());
+    }
 }
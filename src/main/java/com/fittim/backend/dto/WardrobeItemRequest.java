@@ -11,4 +11,8 @@ public record WardrobeItemRequest(
         String brand,
         List<String> seasons,
         List<String> colors) {
+
+    public WardrobeBulkItemRequest toItemRequest() {
+        return new WardrobeBulkItemRequest(category, season, name, brand, seasons, colors);
+    }
 }
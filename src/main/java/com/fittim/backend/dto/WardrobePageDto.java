@@ -0,0 +1,8 @@
+package com.fittim.backend.dto;
+
+import java.util.List;
+
+public record WardrobePageDto(
+        List<WardrobeDto> items,
+        String nextCursor) { // null on the last page
+}
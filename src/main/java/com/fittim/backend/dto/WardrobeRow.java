@@ -0,0 +1,21 @@
+package com.fittim.backend.dto;
+
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of a wardrobe item, read by constructor projection without hydrating the entity.
+ */
+public record WardrobeRow(
+        Long id,
+        Category category,
+        Season season,
+        String imageUrl,
+        String thumbnailUrl,
+        String mediumUrl,
+        String name,
+        String brand,
+        LocalDateTime createdAt) {
+}
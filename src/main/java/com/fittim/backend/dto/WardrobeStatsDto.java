@@ -0,0 +1,21 @@
+package com.fittim.backend.dto;
+
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+
+import java.util.List;
+import java.util.Map;
+
+public record WardrobeStatsDto(
+        int total,
+        Map<Category, Integer> categories,
+        Map<Season, Integer> seasons,
+        Map<String, Integer> colors, // most frequent first
+        Map<String, Integer> brands, // most frequent first
+        List<ItemUsage> leastUsed) {
+
+    public record ItemUsage(
+            WardrobeDto item,
+            long uses) { // times the item was part of a selected outfit
+    }
+}
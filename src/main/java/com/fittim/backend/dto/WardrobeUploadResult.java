@@ -0,0 +1,10 @@
+package com.fittim.backend.dto;
+
+/**
+ * A created item plus the id of an existing item whose image is a near-duplicate, if any.
+ * The item is saved either way; the client decides whether to keep it.
+ */
+public record WardrobeUploadResult(
+        WardrobeDto item,
+        Long duplicateOf) {
+}
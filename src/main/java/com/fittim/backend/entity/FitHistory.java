@@ -12,34 +12,74 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Table(name = "fit_history", indexes = {
-        @Index(name = "idx_fit_history_user_created_at", columnList = "user_id, created_at")
+        @Index(name = "idx_fit_history_user_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_fit_history_group", columnList = "recommendation_group"),
+        @Index(name = "idx_fit_history_user_sync_version", columnList = "user_id, sync_version")
 })
 public class FitHistory extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("fit_history_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Interned item combination; repeated outfits share one row
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "top_id")
-    private WardrobeItem top;
+    @JoinColumn(name = "outfit_id")
+    private Outfit outfit;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "bottom_id")
-    private WardrobeItem bottom;
+    @JoinColumn(name = "place_id")
+    private FitLabel placeLabel; // e.g. "CAMPUS", "CAFE"
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "outer_id")
-    private WardrobeItem outer;
+    @JoinColumn(name = "mood_id")
+    private FitLabel moodLabel; // e.g. "CASUAL", "MINIMAL" (currently from request or derived)
 
-    private String place; // e.g. "CAMPUS", "CAFE"
-    private String mood; // e.g. "CASUAL", "MINIMAL" (currently from request or derived)
     private String season;
 
     @Column(length = 1000)
     private String recommendationReason;
+
+    // Alternatives from one recommend call share a group; only the selected one shows up in history
+    @Column(length = 36)
+    private String recommendationGroup;
+
+    private Integer alternativeRank;
+
+    private boolean selected;
+
+    // Change version of the last selection change; 0 for alternatives that were never selected
+    private long syncVersion;
+
+    public void changeSelected(boolean selected) {
+        this.selected = selected;
+    }
+
+    public void stampSyncVersion(long syncVersion) {
+        this.syncVersion = syncVersion;
+    }
+
+    public WardrobeItem getTop() {
+        return outfit.getTop();
+    }
+
+    public WardrobeItem getBottom() {
+        return outfit.getBottom();
+    }
+
+    public WardrobeItem getOuter() {
+        return outfit.getOuter();
+    }
+
+    public String getPlace() {
+        return placeLabel != null ? placeLabel.getValue() : null;
+    }
+
+    public String getMood() {
+        return moodLabel != null ? moodLabel.getValue() : null;
+    }
 }
@@ -0,0 +1,30 @@
+package com.fittim.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dictionary entry for repeated free-text FitHistory values (place, mood).
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "fit_label")
+public class FitLabel {
+
+    public static final int MAX_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // VALUE is a reserved word in H2
+    @Column(name = "label_value", nullable = false, unique = true, length = MAX_LENGTH)
+    private String value;
+
+    public FitLabel(String value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.fittim.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interned (top, bottom, outer) combination shared by every FitHistory row that recommends it.
+ * Uniqueness is keyed on {@code outer_key} rather than the nullable {@code outer_id}, since
+ * NULLs never collide in a unique index and outer-less outfits could otherwise repeat.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "outfit", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outfit_item_key", columnNames = { "top_id", "bottom_id", "outer_key" })
+})
+public class Outfit extends BaseTimeEntity {
+
+    public static final long NO_OUTER = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "top_id", nullable = false)
+    private WardrobeItem top;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bottom_id", nullable = false)
+    private WardrobeItem bottom;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "outer_id")
+    private WardrobeItem outer;
+
+    @Column(name = "outer_key", nullable = false)
+    private long outerKey; // outer's id, or NO_OUTER
+
+    private long usageCount; // times this outfit was the selected recommendation; see OutfitRepository.markUsed
+
+    private LocalDateTime lastUsedAt;
+
+    @Builder
+    public Outfit(WardrobeItem top, WardrobeItem bottom, WardrobeItem outer) {
+        this.top = top;
+        this.bottom = bottom;
+        this.outer = outer;
+        this.outerKey = outerKey(outer);
+    }
+
+    public static long outerKey(WardrobeItem outer) {
+        return outer != null ? outer.getId() : NO_OUTER;
+    }
+}
@@ -0,0 +1,25 @@
+package com.fittim.backend.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the id from the named database sequence through {@link PooledSequenceGenerator},
+ * which takes its allocation size from configuration. Used instead of {@code @GeneratedValue}.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface PooledSequence {
+
+    /**
+     * Name of the database sequence.
+     */
+    String value();
+}
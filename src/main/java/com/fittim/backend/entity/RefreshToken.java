@@ -0,0 +1,52 @@
+package com.fittim.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One refresh token of a login session, stored as the SHA-256 of the token. Each refresh
+ * replaces the token with a new one in the same session; the old row stays, marked used,
+ * so a second use of it is recognized as reuse.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_token_session", columnList = "session_id"),
+        @Index(name = "idx_refresh_token_revoked_at", columnList = "revoked_at")
+})
+public class RefreshToken extends BaseTimeEntity {
+
+    @Id
+    @PooledSequence("refresh_token_seq")
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "session_id", nullable = false, length = 36)
+    private String sessionId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    public RefreshToken(String tokenHash, Long userId, String sessionId, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.expiresAt = expiresAt;
+    }
+}
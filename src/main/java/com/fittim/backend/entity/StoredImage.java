@@ -0,0 +1,31 @@
+package com.fittim.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One content-addressed image file on disk, shared by every WardrobeItem whose upload had the
+ * same bytes. The file may be deleted once refCount drops to zero.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "stored_image")
+public class StoredImage extends BaseTimeEntity {
+
+    @Id
+    @Column(name = "image_key", length = 100)
+    private String imageKey; // ab/cd/<sha-256>.<ext>
+
+    private long size;
+
+    private int refCount;
+
+    public StoredImage(String imageKey, long size) {
+        this.imageKey = imageKey;
+        this.size = size;
+        this.refCount = 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fittim.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user change version for delta sync. Incremented with a single UPDATE, whose row lock
+ * is held until commit, so one user's versions become visible in increasing order.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "sync_counter")
+public class SyncCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long version;
+
+    public SyncCounter(Long userId, long version) {
+        this.userId = userId;
+        this.version = version;
+    }
+}
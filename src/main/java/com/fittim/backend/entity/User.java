@@ -20,7 +20,7 @@ import java.util.ArrayList;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("users_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
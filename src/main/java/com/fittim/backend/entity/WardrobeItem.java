@@ -13,13 +13,17 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Table(name = "wardrobe_item", indexes = {
-        @Index(name = "idx_wardrobe_user_season", columnList = "user_id, season"),
-        @Index(name = "idx_wardrobe_user_category", columnList = "user_id, category")
+        // Keyset listing: equality filters first, then the (created_at, id) sort key
+        @Index(name = "idx_wardrobe_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_wardrobe_user_season_created", columnList = "user_id, season, created_at, id"),
+        @Index(name = "idx_wardrobe_user_category_created", columnList = "user_id, category, created_at, id"),
+        @Index(name = "idx_wardrobe_user_sync_version", columnList = "user_id, sync_version"),
+        @Index(name = "idx_wardrobe_image_key", columnList = "image_key")
 })
 public class WardrobeItem extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("wardrobe_item_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +39,18 @@ public class WardrobeItem extends BaseTimeEntity {
 
     private String imageUrl;
 
+    @Column(length = 100)
+    private String imageKey; // StoredImage key; null for items uploaded before content addressing
+
+    private Long imageHash; // 64-bit dHash for near-duplicate detection
+
+    // Filled asynchronously by the variant pipeline; null until generated
+    private String thumbnailUrl;
+
+    private String mediumUrl;
+
+    private long syncVersion; // user's change version of the last write, for delta sync
+
     @Column
     private String name;
 
@@ -52,12 +68,14 @@ public class WardrobeItem extends BaseTimeEntity {
     private List<String> seasons;
 
     @Builder
-    public WardrobeItem(User user, Category category, Season season, String imageUrl, String name, String brand,
-            List<String> userSeasons, List<String> colors) {
+    public WardrobeItem(User user, Category category, Season season, String imageUrl, String imageKey,
+            Long imageHash, String name, String brand, List<String> userSeasons, List<String> colors) {
         this.user = user;
         this.category = category;
         this.season = season;
         this.imageUrl = imageUrl;
+        this.imageKey = imageKey;
+        this.imageHash = imageHash;
         this.name = name;
         this.brand = brand;
         this.seasons = userSeasons;
@@ -84,6 +102,22 @@ public class WardrobeItem extends BaseTimeEntity {
             this.seasons.addAll(seasons);
     }
 
+    public void stampSyncVersion(long syncVersion) {
+        this.syncVersion = syncVersion;
+    }
+
+    /**
+     * Sets detected colors only when none were entered.
+     */
+    public boolean fillColors(List<String> detected) {
+        if (this.colors != null && !this.colors.isEmpty())
+            return false;
+        if (this.colors == null)
+            this.colors = new ArrayList<>();
+        this.colors.addAll(detected);
+        return true;
+    }
+
     public void patch(String name, String brand, List<String> colors, Category category, Season season,
             List<String> seasons) {
         if (name != null)
@@ -0,0 +1,36 @@
+package com.fittim.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Records a deleted WardrobeItem so delta sync can tell clients to drop their copy.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "wardrobe_tombstone", indexes = {
+        @Index(name = "idx_wardrobe_tombstone_user_version", columnList = "user_id, sync_version")
+})
+public class WardrobeTombstone extends BaseTimeEntity {
+
+    @Id
+    @PooledSequence("wardrobe_tombstone_seq")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long itemId;
+
+    private long syncVersion;
+
+    public WardrobeTombstone(Long userId, Long itemId, long syncVersion) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.syncVersion = syncVersion;
+    }
+}
@@ -0,0 +1,13 @@
+package com.fittim.backend.event;
+
+import java.util.List;
+
+/**
+ * Published when a recommended outfit becomes the selected one in FitHistory, either as the
+ * primary result of a recommendation or when the user picks an alternative.
+ *
+ * @param selectedItemIds   items of the newly selected outfit
+ * @param deselectedItemIds items of the outfit it replaced in the same group; empty for a new recommendation
+ */
+public record OutfitSelectedEvent(Long userId, List<Long> selectedItemIds, List<Long> deselectedItemIds) {
+}
@@ -0,0 +1,7 @@
+package com.fittim.backend.event;
+
+/**
+ * Published when the last WardrobeItem referencing a stored image is deleted.
+ */
+public record StoredImageReleasedEvent(String imageKey) {
+}
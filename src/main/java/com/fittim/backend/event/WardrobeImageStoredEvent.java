@@ -0,0 +1,17 @@
+package com.fittim.backend.event;
+
+import java.nio.file.Path;
+
+/**
+ * Published when an uploaded wardrobe image is stored and its item row is saved.
+ *
+ * @param itemId   saved WardrobeItem id
+ * @param userId   owner of the item
+ * @param file     stored original on local disk
+ * @param imageUrl public URL of the original
+ * @param hasColors whether the user entered colors; otherwise they are extracted from the image
+ * @param imageHash perceptual hash, or null if the image could not be decoded
+ */
+public record WardrobeImageStoredEvent(Long itemId, Long userId, Path file, String imageUrl, boolean hasColors,
+        Long imageHash) {
+}
@@ -0,0 +1,34 @@
+package com.fittim.backend.event;
+
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.WardrobeItem;
+
+import java.util.List;
+
+/**
+ * Snapshot of a wardrobe item after a create, update or delete, for in-memory views
+ * (search index, statistics) that are maintained incrementally after commit.
+ *
+ * @param deleted true for deletes; the other item fields are then null
+ */
+public record WardrobeItemChangedEvent(
+        Long userId,
+        Long itemId,
+        boolean deleted,
+        Category category,
+        Season season,
+        String name,
+        String brand,
+        List<String> colors) {
+
+    public static WardrobeItemChangedEvent saved(WardrobeItem item) {
+        return new WardrobeItemChangedEvent(item.getUser().getId(), item.getId(), false, item.getCategory(),
+                item.getSeason(), item.getName(), item.getBrand(),
+                item.getColors() == null ? List.of() : List.copyOf(item.getColors()));
+    }
+
+    public static WardrobeItemChangedEvent deleted(Long userId, Long itemId) {
+        return new WardrobeItemChangedEvent(userId, itemId, true, null, null, null, null, List.of());
+    }
+}
@@ -28,9 +28,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException e) {
-        // Specifically for login failures which throw IllegalArgumentException with
-        // this message
-        if ("Invalid email or password".equals(e.getMessage())) {
+        // Specifically for login and refresh failures which throw IllegalArgumentException
+        // with these messages
+        if ("Invalid email or password".equals(e.getMessage())
+                || com.fittim.backend.service.RefreshTokenService.INVALID_TOKEN.equals(e.getMessage())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
         }
         return ResponseEntity.badRequest().body(e.getMessage());
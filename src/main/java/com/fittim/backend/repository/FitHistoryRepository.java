@@ -1,5 +1,6 @@
 package com.fittim.backend.repository;
 
+import com.fittim.backend.dto.FitHistoryDto;
 import com.fittim.backend.entity.FitHistory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,9 +8,48 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface FitHistoryRepository extends JpaRepository<FitHistory, Long> {
 
-    @Query("SELECT fh FROM FitHistory fh JOIN FETCH fh.top JOIN FETCH fh.bottom LEFT JOIN FETCH fh.outer WHERE fh.user.id = :userId ORDER BY fh.createdAt DESC")
-    List<FitHistory> findTopByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT new com.fittim.backend.dto.FitHistoryDto(fh.id, pl.value, md.value, fh.season, " +
+            "COALESCE(ow.imageUrl, t.imageUrl), fh.recommendationReason, fh.createdAt) " +
+            "FROM FitHistory fh JOIN fh.outfit o JOIN o.top t LEFT JOIN o.outer ow " +
+            "LEFT JOIN fh.placeLabel pl LEFT JOIN fh.moodLabel md " +
+            "WHERE fh.user.id = :userId AND fh.selected = true ORDER BY fh.createdAt DESC")
+    List<FitHistoryDto> findHistoryByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.fittim.backend.dto.FitHistoryDto(fh.id, pl.value, md.value, fh.season, " +
+            "COALESCE(ow.imageUrl, t.imageUrl), fh.recommendationReason, fh.createdAt) " +
+            "FROM FitHistory fh JOIN fh.outfit o JOIN o.top t LEFT JOIN o.outer ow " +
+            "LEFT JOIN fh.placeLabel pl LEFT JOIN fh.moodLabel md " +
+            "WHERE fh.user.id = :userId AND fh.selected = true " +
+            "AND fh.syncVersion > :since AND fh.syncVersion <= :version ORDER BY fh.syncVersion, fh.id")
+    List<FitHistoryDto> findChangedHistory(@Param("userId") Long userId, @Param("since") long since,
+            @Param("version") long version);
+
+    // Histories replaced by another alternative since the given version; they left the history list
+    @Query("SELECT fh.id FROM FitHistory fh WHERE fh.user.id = :userId AND fh.selected = false " +
+            "AND fh.syncVersion > :since AND fh.syncVersion <= :version")
+    List<Long> findDeselectedIds(@Param("userId") Long userId, @Param("since") long since,
+            @Param("version") long version);
+
+    // Items stay lazy: detail reads build their WardrobeDto through projection queries
+    @Query("SELECT fh FROM FitHistory fh JOIN FETCH fh.outfit LEFT JOIN FETCH fh.placeLabel " +
+            "LEFT JOIN FETCH fh.moodLabel WHERE fh.id = :id")
+    Optional<FitHistory> findDetailById(@Param("id") Long id);
+
+    @Query("SELECT o.top.id, o.bottom.id FROM FitHistory fh JOIN fh.outfit o " +
+            "WHERE fh.user.id = :userId AND fh.selected = true ORDER BY fh.createdAt DESC")
+    List<Object[]> findRecentOutfitIds(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * (topId, bottomId, outerId, count) per selected outfit; only used to rebuild wardrobe statistics.
+     */
+    @Query("SELECT o.top.id, o.bottom.id, ow.id, COUNT(fh) FROM FitHistory fh JOIN fh.outfit o " +
+            "LEFT JOIN o.outer ow WHERE fh.user.id = :userId AND fh.selected = true " +
+            "GROUP BY o.top.id, o.bottom.id, ow.id")
+    List<Object[]> countSelectedOutfitsByUserId(@Param("userId") Long userId);
+
+    List<FitHistory> findAllByRecommendationGroupOrderByAlternativeRankAsc(String recommendationGroup);
 }
@@ -0,0 +1,25 @@
+package com.fittim.backend.repository;
+
+import com.fittim.backend.entity.FitLabel;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface FitLabelRepository extends JpaRepository<FitLabel, Long> {
+    Optional<FitLabel> findByValue(String value);
+
+    // Locking read: sees a row a concurrent transaction committed after this one's snapshot
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT l FROM FitLabel l WHERE l.value = :value")
+    Optional<FitLabel> findLockedByValue(@Param("value") String value);
+
+    // Skips, instead of failing on, a value another transaction inserted concurrently
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO fit_label (label_value) VALUES (:value)", nativeQuery = true)
+    int insertIfAbsent(@Param("value") String value);
+}
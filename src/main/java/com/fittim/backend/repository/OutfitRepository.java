@@ -0,0 +1,39 @@
+package com.fittim.backend.repository;
+
+import com.fittim.backend.entity.Outfit;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OutfitRepository extends JpaRepository<Outfit, Long> {
+
+    @Query("SELECT o FROM Outfit o WHERE o.top.id = :topId AND o.bottom.id = :bottomId AND o.outerKey = :outerKey")
+    Optional<Outfit> findByItemKey(@Param("topId") Long topId, @Param("bottomId") Long bottomId,
+            @Param("outerKey") long outerKey);
+
+    // Locking read: sees a row a concurrent transaction committed after this one's snapshot
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT o FROM Outfit o WHERE o.top.id = :topId AND o.bottom.id = :bottomId AND o.outerKey = :outerKey")
+    Optional<Outfit> findLockedByItemKey(@Param("topId") Long topId, @Param("bottomId") Long bottomId,
+            @Param("outerKey") long outerKey);
+
+    // Skips, instead of failing on, a combination another transaction inserted concurrently
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outfit "
+            + "(top_id, bottom_id, outer_id, outer_key, usage_count, created_at, modified_at) "
+            + "VALUES (:topId, :bottomId, :outerId, :outerKey, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("topId") Long topId, @Param("bottomId") Long bottomId,
+            @Param("outerId") Long outerId, @Param("outerKey") long outerKey);
+
+    // Increments in the database, so concurrent selections of the same outfit all count
+    @Modifying
+    @Query("UPDATE Outfit o SET o.usageCount = o.usageCount + 1, o.lastUsedAt = :now WHERE o.id = :id")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,42 @@
+package com.fittim.backend.repository;
+
+import com.fittim.backend.entity.StoredImage;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StoredImageRepository extends JpaRepository<StoredImage, String> {
+
+    // Reference counts change with single UPDATEs so concurrent uploads/deletes never lose a count
+
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount + 1 WHERE s.imageKey = :imageKey")
+    int incrementRefCount(@Param("imageKey") String imageKey);
+
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount - 1 WHERE s.imageKey = :imageKey AND s.refCount > 0")
+    int decrementRefCount(@Param("imageKey") String imageKey);
+
+    // Skips, instead of failing on, a row a concurrent first upload of the same bytes inserted
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO stored_image (image_key, size, ref_count, created_at, modified_at) "
+            + "VALUES (:imageKey, :size, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertIfAbsent(@Param("imageKey") String imageKey, @Param("size") long size);
+
+    @Query("SELECT s.refCount FROM StoredImage s WHERE s.imageKey = :imageKey")
+    Optional<Integer> findRefCount(@Param("imageKey") String imageKey);
+
+    // Held while a released image's files are deleted, so a concurrent increment waits for the delete
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StoredImage s WHERE s.imageKey = :imageKey AND s.refCount = 0")
+    Optional<StoredImage> lockUnreferenced(@Param("imageKey") String imageKey);
+
+    @Modifying
+    @Query("DELETE FROM StoredImage s WHERE s.imageKey = :imageKey AND s.refCount = 0")
+    int deleteIfUnreferenced(@Param("imageKey") String imageKey);
+}
@@ -0,0 +1,24 @@
+package com.fittim.backend.repository;
+
+import com.fittim.backend.entity.SyncCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SyncCounterRepository extends JpaRepository<SyncCounter, Long> {
+
+    @Modifying
+    @Query("UPDATE SyncCounter c SET c.version = c.version + 1 WHERE c.userId = :userId")
+    int increment(@Param("userId") Long userId);
+
+    // Skips, instead of failing on, a counter another transaction created concurrently
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO sync_counter (user_id, version) VALUES (:userId, 0)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    @Query("SELECT c.version FROM SyncCounter c WHERE c.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+}
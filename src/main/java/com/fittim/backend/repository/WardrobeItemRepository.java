@@ -1,5 +1,6 @@
 package com.fittim.backend.repository;
 
+import com.fittim.backend.dto.WardrobeRow;
 import com.fittim.backend.entity.Season;
 import com.fittim.backend.entity.User;
 import com.fittim.backend.entity.WardrobeItem;
@@ -8,10 +9,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface WardrobeItemRepository extends JpaRepository<WardrobeItem, Long> {
+
+        // Constructor projection shared by the read-only row queries below
+        String ROW_SELECT = "SELECT new com.fittim.backend.dto.WardrobeRow(w.id, w.category, w.season, w.imageUrl, "
+                        + "w.thumbnailUrl, w.mediumUrl, w.name, w.brand, w.createdAt) FROM WardrobeItem w ";
+
         List<WardrobeItem> findAllByUserOrderByCreatedAtDesc(User user);
 
         List<WardrobeItem> findAllByUserAndSeason(User user, Season season);
 
+        List<WardrobeItem> findAllByUserIdOrderByCreatedAtDesc(Long userId);
+
+        List<WardrobeItem> findAllByUserIdAndSeasonIn(Long userId, java.util.Collection<Season> seasons);
+
         @org.springframework.data.jpa.repository.Query("SELECT w FROM WardrobeItem w WHERE w.user.id = :userId " +
                         "AND (:category IS NULL OR w.category = :category) " +
                         "AND (:season IS NULL OR w.season = :season) " +
@@ -21,7 +31,146 @@ public interface WardrobeItemRepository extends JpaRepository<WardrobeItem, Long
                         @org.springframework.data.repository.query.Param("category") com.fittim.backend.entity.Category category,
                         @org.springframework.data.repository.query.Param("season") Season season);
 
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND (:category IS NULL OR w.category = :category) " +
+                        "AND (:season IS NULL OR w.season = :season) " +
+                        "ORDER BY w.createdAt DESC")
+        List<WardrobeRow> findRowsByUserIdAndCategoryAndSeason(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("category") com.fittim.backend.entity.Category category,
+                        @org.springframework.data.repository.query.Param("season") Season season);
+
+        // Keyset pages, one query per filter combination: an "(:param IS NULL OR ...)" predicate
+        // would keep the planner from using the matching (user_id, <filter>, created_at, id) index
+        String PAGE_ORDER = "ORDER BY w.createdAt DESC, w.id DESC";
+        String AFTER_CURSOR = "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) ";
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " + PAGE_ORDER)
+        List<WardrobeRow> findFirstPage(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " + AFTER_CURSOR
+                        + PAGE_ORDER)
+        List<WardrobeRow> findPageAfter(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.category = :category " + PAGE_ORDER)
+        List<WardrobeRow> findFirstPageByCategory(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("category") com.fittim.backend.entity.Category category,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.category = :category " + AFTER_CURSOR + PAGE_ORDER)
+        List<WardrobeRow> findPageAfterByCategory(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("category") com.fittim.backend.entity.Category category,
+                        @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.season = :season " + PAGE_ORDER)
+        List<WardrobeRow> findFirstPageBySeason(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("season") Season season,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.season = :season " + AFTER_CURSOR + PAGE_ORDER)
+        List<WardrobeRow> findPageAfterBySeason(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("season") Season season,
+                        @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.category = :category AND w.season = :season " + PAGE_ORDER)
+        List<WardrobeRow> findFirstPageByCategoryAndSeason(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("category") com.fittim.backend.entity.Category category,
+                        @org.springframework.data.repository.query.Param("season") Season season,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.category = :category AND w.season = :season " + AFTER_CURSOR + PAGE_ORDER)
+        List<WardrobeRow> findPageAfterByCategoryAndSeason(
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("category") com.fittim.backend.entity.Category category,
+                        @org.springframework.data.repository.query.Param("season") Season season,
+                        @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        org.springframework.data.domain.Pageable pageable);
+
+        // Ownership check for batch mutations: ids owned by someone else are simply not returned
+        List<WardrobeItem> findAllByIdInAndUserId(java.util.Collection<Long> ids, Long userId);
+
+        // Items an interned outfit still references; deleting them would violate its foreign keys
+        @org.springframework.data.jpa.repository.Query("SELECT w.id FROM WardrobeItem w WHERE w.id IN :ids AND EXISTS "
+                        + "(SELECT 1 FROM Outfit o WHERE o.top = w OR o.bottom = w OR o.outer = w)")
+        List<Long> findIdsReferencedByOutfits(
+                        @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
         List<WardrobeItem> findByUserIdAndCategory(Long userId, com.fittim.backend.entity.Category category);
 
         List<WardrobeItem> findTop5ByUserIdOrderByCreatedAtDesc(Long userId);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId ORDER BY w.createdAt DESC")
+        List<WardrobeRow> findRecentRows(@org.springframework.data.repository.query.Param("userId") Long userId,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.id IN :ids")
+        List<WardrobeRow> findRowsByIdIn(
+                        @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+        @org.springframework.data.jpa.repository.Query(ROW_SELECT + "WHERE w.user.id = :userId " +
+                        "AND w.syncVersion > :since AND w.syncVersion <= :version ORDER BY w.syncVersion, w.id")
+        List<WardrobeRow> findChangedRows(@org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("since") long since,
+                        @org.springframework.data.repository.query.Param("version") long version);
+
+        /**
+         * (itemId, color) pairs for all given items in one query. Kept apart from the seasons,
+         * since joining both collections would return colors x seasons rows per item.
+         */
+        @org.springframework.data.jpa.repository.Query("SELECT w.id, c FROM WardrobeItem w JOIN w.colors c " +
+                        "WHERE w.id IN :ids")
+        List<Object[]> findColorsByItemIds(
+                        @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+        /**
+         * (itemId, season) pairs for all given items in one query.
+         */
+        @org.springframework.data.jpa.repository.Query("SELECT w.id, s FROM WardrobeItem w JOIN w.seasons s " +
+                        "WHERE w.id IN :ids")
+        List<Object[]> findSeasonsByItemIds(
+                        @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+        @org.springframework.data.jpa.repository.Query("SELECT w.id, w.imageHash FROM WardrobeItem w "
+                        + "WHERE w.user.id = :userId AND w.imageHash IS NOT NULL")
+        List<Object[]> findImageHashesByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE WardrobeItem w SET w.thumbnailUrl = :thumbnailUrl, "
+                        + "w.mediumUrl = :mediumUrl, w.syncVersion = :syncVersion WHERE w.id = :id")
+        int updateVariantUrls(@org.springframework.data.repository.query.Param("id") Long id,
+                        @org.springframework.data.repository.query.Param("thumbnailUrl") String thumbnailUrl,
+                        @org.springframework.data.repository.query.Param("mediumUrl") String mediumUrl,
+                        @org.springframework.data.repository.query.Param("syncVersion") long syncVersion);
+
+        /**
+         * One keyset page of distinct image keys in key order, for the orphan sweeper.
+         */
+        @org.springframework.data.jpa.repository.Query("SELECT DISTINCT w.imageKey FROM WardrobeItem w "
+                        + "WHERE w.imageKey > :after ORDER BY w.imageKey")
+        List<String> findImageKeysAfter(@org.springframework.data.repository.query.Param("after") String after,
+                        org.springframework.data.domain.Pageable page);
+
+        boolean existsByImageKeyStartingWith(String prefix);
 }
@@ -0,0 +1,16 @@
+package com.fittim.backend.repository;
+
+import com.fittim.backend.entity.WardrobeTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface WardrobeTombstoneRepository extends JpaRepository<WardrobeTombstone, Long> {
+
+    @Query("SELECT t.itemId FROM WardrobeTombstone t WHERE t.userId = :userId " +
+            "AND t.syncVersion > :since AND t.syncVersion <= :version")
+    List<Long> findDeletedItemIds(@Param("userId") Long userId, @Param("since") long since,
+            @Param("version") long version);
+}
@@ -1,6 +1,5 @@
 package com.fittim.backend.service;
 
-import com.fittim.backend.config.JwtTokenProvider;
 import com.fittim.backend.dto.AuthDto.*;
 import com.fittim.backend.dto.JwtResponse;
 import com.fittim.backend.entity.User;
@@ -22,7 +21,7 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     // In-memory storage for verification codes: Email -> Code info
     private final Map<String, VerificationInfo> verificationCodes = new ConcurrentHashMap<>();
@@ -106,7 +105,7 @@ public class AuthService {
         return userRepository.save(user).getId();
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public JwtResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> {
@@ -119,8 +118,15 @@ public class AuthService {
             throw new IllegalArgumentException("Invalid email or password");
         }
 
-        String token = jwtTokenProvider.createToken(user.getEmail(), user.getRole());
-        return new JwtResponse(token);
+        return refreshTokenService.startSession(user);
+    }
+
+    public JwtResponse refresh(RefreshRequest request) {
+        return refreshTokenService.refresh(request.refreshToken());
+    }
+
+    public void logout(RefreshRequest request) {
+        refreshTokenService.logout(request.refreshToken());
     }
 
     private String generateRandomCode() {
@@ -0,0 +1,141 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.WeatherDto.SimpleWeatherDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.WardrobeItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Narrows wardrobe candidates to what fits the weather before they reach the
+ * Gemini prompt or the fallback scorer.
+ * Temperature maps to allowed season bands, precipitation decides whether outers stay,
+ * and only the best-n items per category (by a cheap relevance score) are kept.
+ */
+@Slf4j
+@Component
+public class CandidatePruner {
+
+    private static final Pattern TEMPERATURE = Pattern.compile("(-?\\d+(?:\\.\\d+)?)\\s*(?:°|도|℃)");
+
+    private final int perCategory;
+
+    public CandidatePruner(@Value("${fit.prune.per-category:8}") int perCategory) {
+        this.perCategory = perCategory;
+    }
+
+    /**
+     * Weather facts the pruner needs: temperature in °C and the PTY-derived state
+     * ("Clear", "Rain", "Rain/Snow", "Snow").
+     */
+    public record Conditions(double temperature, String state) {
+
+        public boolean isRainy() {
+            return state.contains("Rain");
+        }
+
+        public boolean isSnowy() {
+            return state.contains("Snow");
+        }
+
+        /**
+         * Server-resolved weather wins; otherwise the free-form client string is parsed,
+         * falling back to the same "Sunny, 20°C" default the prompt uses.
+         */
+        public static Conditions resolve(String requested, SimpleWeatherDto resolved) {
+            if (resolved != null) {
+                return new Conditions(resolved.temperature(), resolved.state());
+            }
+            if (requested == null || requested.isEmpty()) {
+                return new Conditions(20.0, "Clear");
+            }
+
+            Matcher matcher = TEMPERATURE.matcher(requested);
+            double temperature = matcher.find() ? Double.parseDouble(matcher.group(1)) : 20.0;
+
+            String lower = requested.toLowerCase();
+            boolean rain = lower.contains("rain") || requested.contains("비");
+            boolean snow = lower.contains("snow") || requested.contains("눈");
+            String state = rain && snow ? "Rain/Snow" : rain ? "Rain" : snow ? "Snow" : "Clear";
+            return new Conditions(temperature, state);
+        }
+    }
+
+    public List<WardrobeItem> prune(List<WardrobeItem> items, Conditions conditions) {
+        Set<Season> band = seasonBand(conditions);
+        boolean outerAllowed = conditions.temperature() < 20 || conditions.isRainy() || conditions.isSnowy();
+
+        List<WardrobeItem> pruned = new ArrayList<>();
+        for (Category category : Category.values()) {
+            if (category == Category.OUTER && !outerAllowed) {
+                continue;
+            }
+
+            List<WardrobeItem> ofCategory = items.stream()
+                    .filter(item -> item.getCategory() == category)
+                    .collect(Collectors.toList());
+            List<WardrobeItem> inBand = ofCategory.stream()
+                    .filter(item -> item.getSeason() == Season.ALL || band.contains(item.getSeason()))
+                    .collect(Collectors.toList());
+            // Never prune a category to zero; an off-season item beats no recommendation
+            List<WardrobeItem> pool = inBand.isEmpty() ? ofCategory : inBand;
+
+            pool.stream()
+                    .sorted(Comparator.comparingInt((WardrobeItem item) -> relevance(item, band))
+                            .thenComparing(WardrobeItem::getCreatedAt).reversed())
+                    .limit(perCategory)
+                    .forEach(pruned::add);
+        }
+
+        log.info("Pruned candidates for {}°C/{}: {} -> {}", conditions.temperature(), conditions.state(),
+                items.size(), pruned.size());
+        return pruned;
+    }
+
+    private Set<Season> seasonBand(Conditions conditions) {
+        double t = conditions.temperature();
+        Set<Season> band;
+        if (t >= 27) {
+            band = EnumSet.of(Season.SUMMER);
+        } else if (t >= 20) {
+            band = EnumSet.of(Season.SUMMER, Season.SPRING);
+        } else if (t >= 12) {
+            band = EnumSet.of(Season.SPRING, Season.FALL);
+        } else if (t >= 5) {
+            band = EnumSet.of(Season.FALL, Season.WINTER);
+        } else {
+            band = EnumSet.of(Season.WINTER);
+        }
+        if (conditions.isSnowy()) {
+            band.add(Season.WINTER);
+        }
+        return band;
+    }
+
+    /**
+     * Exact season match beats an all-season item; also counts user-tagged seasons.
+     */
+    private int relevance(WardrobeItem item, Set<Season> band) {
+        int score = band.contains(item.getSeason()) ? 2 : item.getSeason() == Season.ALL ? 1 : 0;
+        if (item.getSeasons() != null) {
+            for (String tagged : item.getSeasons()) {
+                if (band.stream().anyMatch(season -> season.name().equalsIgnoreCase(tagged))) {
+                    score++;
+                    break;
+                }
+            }
+        }
+        return score;
+    }
+}
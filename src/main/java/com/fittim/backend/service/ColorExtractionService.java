@@ -0,0 +1,69 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.event.WardrobeImageStoredEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Fills WardrobeItem.colors from the uploaded image when the user left it blank.
+ * Runs after commit on the bounded color pool. Each image has a time budget: decoding is
+ * aborted and clustering stops early once it is spent.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ColorExtractionService {
+
+    // Decode just big enough for the sample grid
+    private static final int DECODE_SIZE = ColorExtractor.SAMPLE_SIZE * 2;
+
+    @Value("${image.colors.timeout:2s}")
+    private Duration timeout;
+
+    private final ColorExtractor colorExtractor;
+    private final WardrobeService wardrobeService;
+    @Qualifier("colorExecutor")
+    private final ThreadPoolTaskExecutor colorExecutor;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageStored(WardrobeImageStoredEvent event) {
+        if (event.hasColors()) {
+            return;
+        }
+        try {
+            colorExecutor.execute(() -> extract(event));
+        } catch (TaskRejectedException e) {
+            log.warn("Color extraction backlog full, skipping item {}", event.itemId());
+        }
+    }
+
+    private void extract(WardrobeImageStoredEvent event) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            BufferedImage image = ImageDecoder.decode(event.file(), DECODE_SIZE, deadline);
+            if (image == null) {
+                log.warn("Color extraction skipped item {}: unsupported format or timed out", event.itemId());
+                return;
+            }
+            List<String> colors = colorExtractor.extract(image, deadline);
+            if (!colors.isEmpty()) {
+                wardrobeService.fillColors(event.itemId(), colors);
+            }
+            log.debug("Extracted {} for item {} in {}ms", colors, event.itemId(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Color extraction failed for item {}: {}", event.itemId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.fittim.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Dominant-color kernel: k-means over a small pixel sample, with each cluster mapped to the
+ * nearest named color. Samples only the central region so studio/floor backgrounds around
+ * the garment weigh less, and skips transparent pixels of cut-out PNGs.
+ */
+@Component
+public class ColorExtractor {
+
+    static final int SAMPLE_SIZE = 48;
+
+    private static final int CLUSTERS = 4;
+    private static final int MAX_ITERATIONS = 10;
+    private static final double MIN_SHARE = 0.15;
+    private static final int MAX_COLORS = 3;
+    private static final double MARGIN = 0.1;
+
+    private record Swatch(String name, int r, int g, int b) {
+    }
+
+    // Color vocabulary stored in WardrobeItem.colors
+    private static final List<Swatch> PALETTE = List.of(
+            new Swatch("black", 0x20, 0x20, 0x20),
+            new Swatch("white", 0xf5, 0xf5, 0xf5),
+            new Swatch("gray", 0x8c, 0x8c, 0x8c),
+            new Swatch("navy", 0x1f, 0x2a, 0x44),
+            new Swatch("blue", 0x2f, 0x5f, 0xb3),
+            new Swatch("skyblue", 0x87, 0xbf, 0xe8),
+            new Swatch("beige", 0xd8, 0xc3, 0xa5),
+            new Swatch("brown", 0x6b, 0x44, 0x23),
+            new Swatch("khaki", 0x8a, 0x84, 0x55),
+            new Swatch("green", 0x2e, 0x7d, 0x32),
+            new Swatch("red", 0xc6, 0x28, 0x28),
+            new Swatch("pink", 0xf0, 0xa1, 0xb8),
+            new Swatch("purple", 0x6a, 0x3d, 0x9a),
+            new Swatch("yellow", 0xf2, 0xd2, 0x33),
+            new Swatch("orange", 0xef, 0x7d, 0x22));
+
+    public List<String> extract(BufferedImage image) {
+        return extract(image, ImageDecoder.NO_DEADLINE);
+    }
+
+    /**
+     * @param deadline System.nanoTime() after which clustering stops with the centroids so far
+     * @return up to three color names, most dominant first
+     */
+    public List<String> extract(BufferedImage image, long deadline) {
+        int[] pixels = sample(image);
+        int count = pixels.length;
+        if (count == 0) {
+            return List.of();
+        }
+        return name(cluster(pixels, count, deadline), count);
+    }
+
+    /**
+     * Nearest-neighbour SAMPLE_SIZE x SAMPLE_SIZE grid over the central region, as packed RGB.
+     */
+    static int[] sample(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int left = (int) (width * MARGIN);
+        int top = (int) (height * MARGIN);
+        int regionWidth = Math.max(1, width - 2 * left);
+        int regionHeight = Math.max(1, height - 2 * top);
+        boolean alpha = image.getColorModel().hasAlpha();
+
+        int[] pixels = new int[SAMPLE_SIZE * SAMPLE_SIZE];
+        int count = 0;
+        for (int sy = 0; sy < SAMPLE_SIZE; sy++) {
+            int y = top + (int) ((sy + 0.5) * regionHeight / SAMPLE_SIZE);
+            for (int sx = 0; sx < SAMPLE_SIZE; sx++) {
+                int x = left + (int) ((sx + 0.5) * regionWidth / SAMPLE_SIZE);
+                int argb = image.getRGB(Math.min(x, width - 1), Math.min(y, height - 1));
+                if (alpha && (argb >>> 24) < 128) {
+                    continue;
+                }
+                pixels[count++] = argb & 0xffffff;
+            }
+        }
+        return count == pixels.length ? pixels : Arrays.copyOf(pixels, count);
+    }
+
+    /**
+     * Lloyd's k-means in RGB with deterministic k-means++ seeding.
+     *
+     * @return per cluster {r, g, b, size}
+     */
+    static int[][] cluster(int[] pixels, int count, long deadline) {
+        double[][] centroids = seed(pixels, count, Math.min(CLUSTERS, count));
+        int k = centroids.length;
+        int[] assignment = new int[count];
+        Arrays.fill(assignment, -1);
+        long[][] sums = new long[k][4];
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            boolean changed = false;
+            for (long[] sum : sums) {
+                Arrays.fill(sum, 0);
+            }
+            for (int i = 0; i < count; i++) {
+                int rgb = pixels[i];
+                int r = (rgb >> 16) & 0xff;
+                int g = (rgb >> 8) & 0xff;
+                int b = rgb & 0xff;
+                int nearest = 0;
+                double best = Double.MAX_VALUE;
+                for (int c = 0; c < k; c++) {
+                    double dr = r - centroids[c][0];
+                    double dg = g - centroids[c][1];
+                    double db = b - centroids[c][2];
+                    double distance = dr * dr + dg * dg + db * db;
+                    if (distance < best) {
+                        best = distance;
+                        nearest = c;
+                    }
+                }
+                if (assignment[i] != nearest) {
+                    assignment[i] = nearest;
+                    changed = true;
+                }
+                sums[nearest][0] += r;
+                sums[nearest][1] += g;
+                sums[nearest][2] += b;
+                sums[nearest][3]++;
+            }
+            for (int c = 0; c < k; c++) {
+                if (sums[c][3] > 0) {
+                    centroids[c][0] = (double) sums[c][0] / sums[c][3];
+                    centroids[c][1] = (double) sums[c][1] / sums[c][3];
+                    centroids[c][2] = (double) sums[c][2] / sums[c][3];
+                }
+            }
+            if (!changed || System.nanoTime() > deadline) {
+                break;
+            }
+        }
+
+        int[][] clusters = new int[k][];
+        for (int c = 0; c < k; c++) {
+            clusters[c] = new int[] { (int) Math.round(centroids[c][0]), (int) Math.round(centroids[c][1]),
+                    (int) Math.round(centroids[c][2]), (int) sums[c][3] };
+        }
+        return clusters;
+    }
+
+    private static double[][] seed(int[] pixels, int count, int k) {
+        Random random = new Random(7);
+        double[][] centroids = new double[k][];
+        double[] distances = new double[count];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        int next = random.nextInt(count);
+        for (int c = 0; c < k; c++) {
+            int rgb = pixels[next];
+            centroids[c] = new double[] { (rgb >> 16) & 0xff, (rgb >> 8) & 0xff, rgb & 0xff };
+
+            // Next seed is drawn proportionally to squared distance from the nearest chosen seed
+            double total = 0;
+            for (int i = 0; i < count; i++) {
+                int p = pixels[i];
+                double dr = ((p >> 16) & 0xff) - centroids[c][0];
+                double dg = ((p >> 8) & 0xff) - centroids[c][1];
+                double db = (p & 0xff) - centroids[c][2];
+                distances[i] = Math.min(distances[i], dr * dr + dg * dg + db * db);
+                total += distances[i];
+            }
+            if (total == 0) {
+                return Arrays.copyOf(centroids, c + 1); // fewer distinct colors than k
+            }
+            double target = random.nextDouble() * total;
+            next = count - 1;
+            for (int i = 0; i < count; i++) {
+                target -= distances[i];
+                if (target <= 0) {
+                    next = i;
+                    break;
+                }
+            }
+        }
+        return centroids;
+    }
+
+    private static List<String> name(int[][] clusters, int count) {
+        Map<String, Integer> shares = new LinkedHashMap<>();
+        for (int[] cluster : clusters) {
+            if (cluster[3] > 0) {
+                shares.merge(nearest(cluster[0], cluster[1], cluster[2]), cluster[3], Integer::sum);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(shares.entrySet());
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : ranked) {
+            if (names.size() == MAX_COLORS || (!names.isEmpty() && entry.getValue() < count * MIN_SHARE)) {
+                break;
+            }
+            names.add(entry.getKey());
+        }
+        return names;
+    }
+
+    /**
+     * Nearest palette entry by the "redmean" weighted RGB distance, a cheap perceptual approximation.
+     */
+    private static String nearest(int r, int g, int b) {
+        Swatch best = PALETTE.get(0);
+        long bestDistance = Long.MAX_VALUE;
+        for (Swatch swatch : PALETTE) {
+            long rmean = (r + swatch.r()) / 2;
+            long dr = r - swatch.r();
+            long dg = g - swatch.g();
+            long db = b - swatch.b();
+            long distance = (((512 + rmean) * dr * dr) >> 8) + 4 * dg * dg + (((767 - rmean) * db * db) >> 8);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = swatch;
+            }
+        }
+        return best.name();
+    }
+}
@@ -0,0 +1,196 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.event.WardrobeImageStoredEvent;
+import com.fittim.backend.event.WardrobeItemChangedEvent;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user BK-tree over wardrobe image hashes, keyed by Hamming distance.
+ * A lookup only descends into children whose edge distance is within the threshold of the
+ * query's distance to the node, so it touches a small fraction of a large closet.
+ * Trees are loaded from the database on first use and updated after each upload or delete commits.
+ * Loading runs in its own read-only transaction, so a tree never holds rows that the caller's
+ * transaction has written but not committed (Hibernate would flush them before the query).
+ */
+@Slf4j
+@Component
+public class DuplicateIndex {
+
+    private final WardrobeItemRepository wardrobeItemRepository;
+    private final TransactionTemplate committedRead;
+    private final int maxDistance;
+    private final Map<Long, BkTree> trees = new ConcurrentHashMap<>();
+
+    public DuplicateIndex(WardrobeItemRepository wardrobeItemRepository, PlatformTransactionManager transactionManager,
+            @Value("${image.duplicate.max-distance:6}") int maxDistance) {
+        this.wardrobeItemRepository = wardrobeItemRepository;
+        this.committedRead = new TransactionTemplate(transactionManager);
+        this.committedRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.committedRead.setReadOnly(true);
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * @return the closest existing item within the distance threshold
+     */
+    public Optional<Long> findNearDuplicate(Long userId, long hash) {
+        return tree(userId).nearest(hash, maxDistance);
+    }
+
+    public boolean isNearDuplicate(long a, long b) {
+        return ImageHasher.distance(a, b) <= maxDistance;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageStored(WardrobeImageStoredEvent event) {
+        if (event.imageHash() != null) {
+            add(event.userId(), event.itemId(), event.imageHash());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(WardrobeItemChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.userId(), event.itemId());
+        }
+    }
+
+    public void add(Long userId, Long itemId, long hash) {
+        tree(userId).add(itemId, hash);
+    }
+
+    public void remove(Long userId, Long itemId) {
+        BkTree tree = trees.get(userId);
+        if (tree != null) {
+            tree.remove(itemId);
+        }
+    }
+
+    private BkTree tree(Long userId) {
+        return trees.computeIfAbsent(userId, this::load);
+    }
+
+    private BkTree load(Long userId) {
+        BkTree tree = new BkTree();
+        List<Object[]> rows = committedRead.execute(status -> wardrobeItemRepository.findImageHashesByUserId(userId));
+        for (Object[] row : rows) {
+            tree.add((Long) row[0], (Long) row[1]);
+        }
+        log.debug("Loaded {} image hashes for user {}", rows.size(), userId);
+        return tree;
+    }
+
+    static final class BkTree {
+
+        private static final class Node {
+            final long hash;
+            final long itemId;
+            Map<Integer, Node> children; // edge = distance to this node
+
+            Node(long hash, long itemId) {
+                this.hash = hash;
+                this.itemId = itemId;
+            }
+        }
+
+        private Node root;
+        private int size;
+        // BK-trees cannot unlink inner nodes; deleted items are skipped and the tree rebuilt when they pile up
+        private final Set<Long> removed = new HashSet<>();
+
+        synchronized void add(long itemId, long hash) {
+            removed.remove(itemId);
+            size++;
+            if (root == null) {
+                root = new Node(hash, itemId);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int distance = ImageHasher.distance(hash, node.hash);
+                if (node.children == null) {
+                    node.children = new HashMap<>(4);
+                }
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new Node(hash, itemId));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        synchronized Optional<Long> nearest(long hash, int maxDistance) {
+            if (root == null) {
+                return Optional.empty();
+            }
+            Long best = null;
+            int bestDistance = maxDistance + 1;
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = ImageHasher.distance(hash, node.hash);
+                if (distance < bestDistance && !removed.contains(node.itemId)) {
+                    best = node.itemId;
+                    bestDistance = distance;
+                }
+                if (node.children == null) {
+                    continue;
+                }
+                // Triangle inequality: matches can only sit under edges within maxDistance of distance
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+            return Optional.ofNullable(best);
+        }
+
+        synchronized void remove(long itemId) {
+            removed.add(itemId);
+            if (removed.size() > size / 2) {
+                rebuild();
+            }
+        }
+
+        private void rebuild() {
+            Map<Long, Long> live = new HashMap<>();
+            Deque<Node> pending = new ArrayDeque<>();
+            if (root != null) {
+                pending.push(root);
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (!removed.contains(node.itemId)) {
+                    live.put(node.itemId, node.hash);
+                }
+                if (node.children != null) {
+                    node.children.values().forEach(pending::push);
+                }
+            }
+            root = null;
+            size = 0;
+            removed.clear();
+            live.forEach((itemId, hash) -> add(itemId, hash));
+        }
+    }
+}
@@ -2,21 +2,41 @@ package com.fittim.backend.service;
 
 import com.fittim.backend.dto.FitRequestDto;
 import com.fittim.backend.dto.FitResponseDto;
+import com.fittim.backend.dto.GeminiDto.RecommendationResult;
+import com.fittim.backend.dto.WeatherDto.SimpleWeatherDto;
 import com.fittim.backend.entity.Category;
 import com.fittim.backend.entity.FitHistory;
+import com.fittim.backend.entity.FitLabel;
+import com.fittim.backend.entity.Outfit;
 import com.fittim.backend.entity.Season;
 import com.fittim.backend.entity.User;
 import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.event.OutfitSelectedEvent;
 import com.fittim.backend.repository.FitHistoryRepository;
+import com.fittim.backend.repository.FitLabelRepository;
+import com.fittim.backend.repository.OutfitRepository;
 import com.fittim.backend.repository.UserRepository;
 import com.fittim.backend.repository.WardrobeItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -28,25 +48,44 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FitService {
 
+    // Flat part of a repeat's penalty: the full jitter range, so any repeat ranks below every fresh pair
+    private static final double REPEAT_PENALTY_BASE = 1.0;
+    private static final int MAX_ALTERNATIVES = 5;
+    private static final int MAX_CACHED_LABELS = 1_000;
+
     private final GeminiService geminiService;
     private final FitHistoryRepository fitHistoryRepository;
     private final WardrobeItemRepository wardrobeItemRepository;
     private final UserRepository userRepository;
+    private final RecentFitCache recentFitCache;
+    private final WeatherService weatherService;
+    private final CandidatePruner candidatePruner;
+    private final OutfitRepository outfitRepository;
+    private final FitLabelRepository fitLabelRepository;
+    private final WardrobeReader wardrobeReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncService syncService;
+    private final ResourceVersionService resourceVersions;
+    @Qualifier("fitExecutor")
+    private final Executor fitExecutor;
     private final Random random = new Random();
 
+    // Place/mood value -> fit_label id. Values are free text from clients, so the map stops
+    // growing at MAX_CACHED_LABELS; values beyond that are looked up on every use.
+    private final Map<String, Long> labelIds = new ConcurrentHashMap<>();
+
     /**
      * Recommends an outfit based on user's wardrobe and request context.
      * Tries AI first, resorts to random fallback on failure.
+     * When request.count() > 1, the extra outfits are returned as alternatives;
+     * no two of them share both top and bottom.
      *
-     * @param email   User email
-     * @param request Recommendation context (Place, Mood, Season, Weather)
-     * @return FitResponseDto with recommended items and reason
+     * @param userId  User id
+     * @param request Recommendation context (Place, Mood, Season, Weather or Lat/Lon, Count)
+     * @return FitResponseDto with recommended items, reason and alternatives
      */
     @Transactional
-    public FitResponseDto recommend(String email, FitRequestDto request) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
+    public FitResponseDto recommend(Long userId, FitRequestDto request) {
         Season season;
         try {
             season = Season.valueOf(request.season().toUpperCase());
@@ -54,89 +93,280 @@ public class FitService {
             throw new IllegalArgumentException("Invalid season: " + request.season());
         }
 
-        List<WardrobeItem> items;
-        if (season == Season.ALL) {
-            items = wardrobeItemRepository.findAllByUserOrderByCreatedAtDesc(user);
-        } else {
-            List<WardrobeItem> seasonItems = wardrobeItemRepository.findAllByUserAndSeason(user, season);
-            List<WardrobeItem> allSeasonItems = wardrobeItemRepository.findAllByUserAndSeason(user, Season.ALL);
-
-            items = new java.util.ArrayList<>(seasonItems);
-            items.addAll(allSeasonItems);
+        int count = request.requestedCount();
+        if (count < 1 || count > MAX_ALTERNATIVES) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_ALTERNATIVES);
         }
+        validateLabel("place", request.place());
+        validateLabel("mood", request.mood());
 
-        // Optimization: Limit items sent to AI to most recent 30
-        List<WardrobeItem> recentItems = items.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(30)
-                .collect(Collectors.toList());
+        // The weather call overlaps the wardrobe query. The query stays on this thread, inside
+        // this transaction and its connection: a worker would need a second pooled connection
+        // while this one waits, and would return items detached from this persistence context.
+        CompletableFuture<SimpleWeatherDto> weatherFuture = hasText(request.weather()) || !request.hasLocation()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.supplyAsync(
+                        () -> weatherService.getCurrentWeather(request.lat(), request.lon()), fitExecutor);
 
-        List<WardrobeItem> tops = filterByCategory(items, Category.TOP);
-        List<WardrobeItem> bottoms = filterByCategory(items, Category.BOTTOM);
-        List<WardrobeItem> outers = filterByCategory(items, Category.OUTER);
+        User user = userRepository.getReferenceById(userId);
+        List<WardrobeItem> items = loadCandidates(userId, season);
+        SimpleWeatherDto resolvedWeather = join(weatherFuture);
+
+        // Drop out-of-band items before the prompt and the scorer see them
+        List<WardrobeItem> candidateItems = candidatePruner.prune(items,
+                CandidatePruner.Conditions.resolve(request.weather(), resolvedWeather));
+
+        List<WardrobeItem> tops = filterByCategory(candidateItems, Category.TOP);
+        List<WardrobeItem> bottoms = filterByCategory(candidateItems, Category.BOTTOM);
+        List<WardrobeItem> outers = filterByCategory(candidateItems, Category.OUTER);
 
         if (tops.isEmpty() || bottoms.isEmpty()) {
             throw new IllegalArgumentException("옷장에 상의와 하의가 최소 1벌씩은 있어야 추천할 수 있어요!");
         }
 
-        WardrobeItem recommendedTop = null;
-        WardrobeItem recommendedBottom = null;
-        WardrobeItem recommendedOuter = null;
-        String recommendedReason = null;
+        List<Candidate> candidates = new ArrayList<>(count);
 
-        // 1. Try AI Recommendation
+        // 1. Try AI Recommendation (one call for all alternatives)
         try {
-            // Use weather from request or fallback
-            String weather = (request.weather() != null && !request.weather().isEmpty())
-                    ? request.weather()
-                    : "Sunny, 20°C"; // Default fallback
-
-            com.fittim.backend.dto.GeminiDto.RecommendationResult aiResult = geminiService.recommend(recentItems,
-                    request.place(), request.mood(), season.name(), weather);
-
-            if (aiResult != null) {
-                if (aiResult.topId() != null)
-                    recommendedTop = findItemById(items, aiResult.topId());
-                if (aiResult.bottomId() != null)
-                    recommendedBottom = findItemById(items, aiResult.bottomId());
-                if (aiResult.outerId() != null)
-                    recommendedOuter = findItemById(items, aiResult.outerId());
-                recommendedReason = aiResult.reason();
+            String weather = describeWeather(request.weather(), resolvedWeather);
+
+            List<RecommendationResult> aiResults = geminiService.recommend(candidateItems,
+                    request.place(), request.mood(), season.name(), weather, recentFitCache.recentPairs(userId),
+                    count);
+
+            for (RecommendationResult aiResult : aiResults) {
+                if (candidates.size() == count)
+                    break;
+                WardrobeItem top = aiResult.topId() != null ? findItemById(candidateItems, aiResult.topId()) : null;
+                WardrobeItem bottom = aiResult.bottomId() != null
+                        ? findItemById(candidateItems, aiResult.bottomId())
+                        : null;
+                WardrobeItem outer = aiResult.outerId() != null
+                        ? findItemById(candidateItems, aiResult.outerId())
+                        : null;
+                if (top == null || bottom == null || sharesTopAndBottom(candidates, top, bottom))
+                    continue;
+                candidates.add(new Candidate(top, bottom, outer, aiResult.reason()));
             }
         } catch (Exception e) {
             // Log error and fall back to random
             log.warn("AI Recommendation Failed (Falling back to Random): {}", e.getMessage());
         }
 
-        // 2. Fallback to Random if AI failed or missing essential items
-        if (recommendedTop == null || recommendedBottom == null) {
-            recommendedTop = getRandomItem(tops);
-            recommendedBottom = getRandomItem(bottoms);
+        // 2. Fill remaining slots with ranked random pairs if AI failed or returned too few
+        if (candidates.size() < count) {
+            for (ScoredPair pair : rankPairs(userId, tops, bottoms)) {
+                if (candidates.size() == count)
+                    break;
+                if (sharesTopAndBottom(candidates, pair.top(), pair.bottom()))
+                    continue;
 
-            if (season == Season.WINTER || season == Season.FALL || season == Season.ALL) {
-                if (!outers.isEmpty()) {
-                    recommendedOuter = getRandomItem(outers);
+                WardrobeItem outer = null;
+                if (season == Season.WINTER || season == Season.FALL || season == Season.ALL) {
+                    outer = getRandomItem(outers);
                 }
+                candidates.add(new Candidate(pair.top(), pair.bottom(), outer, "랜덤 추천 (AI 응답 실패 또는 조건 미충족)"));
+            }
+        }
+
+        // Save all alternatives under one group; the first is selected until the user picks another
+        FitLabel placeLabel = internLabel(request.place());
+        FitLabel moodLabel = internLabel(request.mood() != null ? request.mood() : "Daily"); // Default if null
+        String group = UUID.randomUUID().toString();
+        List<FitHistory> histories = new ArrayList<>(candidates.size());
+        for (int rank = 0; rank < candidates.size(); rank++) {
+            Candidate candidate = candidates.get(rank);
+            histories.add(FitHistory.builder()
+                    .user(user)
+                    .outfit(internOutfit(candidate.top(), candidate.bottom(), candidate.outer()))
+                    .placeLabel(placeLabel)
+                    .moodLabel(moodLabel)
+                    .season(season.name())
+                    .recommendationReason(candidate.reason())
+                    .recommendationGroup(group)
+                    .alternativeRank(rank)
+                    .selected(rank == 0)
+                    .build());
+        }
+
+        // Only the selected alternative enters the history list clients sync
+        histories.get(0).stampSyncVersion(syncService.nextVersion(userId));
+        resourceVersions.bump(userId);
+        fitHistoryRepository.saveAll(histories);
+        FitHistory primary = histories.get(0);
+        outfitRepository.markUsed(primary.getOutfit().getId(), LocalDateTime.now());
+        recentFitCache.record(userId, primary.getTop().getId(), primary.getBottom().getId());
+        eventPublisher.publishEvent(new OutfitSelectedEvent(userId, itemIds(primary), List.of()));
+
+        return toResponse(primary, histories);
+    }
+
+    /**
+     * Marks a stored alternative as the chosen outfit without running a new recommendation.
+     */
+    @Transactional
+    public FitResponseDto selectAlternative(Long userId, Long historyId) {
+        FitHistory chosen = fitHistoryRepository.findById(historyId)
+                .orElseThrow(() -> new IllegalArgumentException("Fit history not found"));
+
+        if (!chosen.getUser().getId().equals(userId)) {
+            throw new IllegalArgumentException("Unauthorized");
+        }
+
+        List<FitHistory> group = chosen.getRecommendationGroup() != null
+                ? fitHistoryRepository.findAllByRecommendationGroupOrderByAlternativeRankAsc(
+                        chosen.getRecommendationGroup())
+                : List.of(chosen);
+
+        if (!chosen.isSelected()) {
+            List<Long> deselectedItemIds = group.stream()
+                    .filter(FitHistory::isSelected)
+                    .findFirst()
+                    .map(this::itemIds)
+                    .orElse(List.of());
+            long version = syncService.nextVersion(userId);
+            for (FitHistory alternative : group) {
+                if (alternative.isSelected()) {
+                    alternative.stampSyncVersion(version);
+                }
+                alternative.changeSelected(alternative.getId().equals(chosen.getId()));
+            }
+            chosen.changeSelected(true);
+            chosen.stampSyncVersion(version);
+            resourceVersions.bump(userId);
+            outfitRepository.markUsed(chosen.getOutfit().getId(), LocalDateTime.now());
+            recentFitCache.record(userId, chosen.getTop().getId(), chosen.getBottom().getId());
+            eventPublisher.publishEvent(new OutfitSelectedEvent(userId, itemIds(chosen), deselectedItemIds));
+        }
+
+        return toResponse(chosen, group);
+    }
+
+    private FitResponseDto toResponse(FitHistory primary, List<FitHistory> group) {
+        List<FitResponseDto> alternatives = group.stream()
+                .filter(history -> !history.getId().equals(primary.getId()))
+                .map(history -> toResponse(history, List.of(history)))
+                .collect(Collectors.toList());
+
+        return FitResponseDto.of(primary.getId(), primary.getPlace(), primary.getMood(), primary.getSeason(),
+                primary.getTop(), primary.getBottom(), primary.getOuter(), primary.getRecommendationReason(),
+                alternatives);
+    }
+
+    private List<Long> itemIds(FitHistory history) {
+        List<Long> ids = new ArrayList<>(3);
+        ids.add(history.getTop().getId());
+        ids.add(history.getBottom().getId());
+        if (history.getOuter() != null) {
+            ids.add(history.getOuter().getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Finds or inserts the combination. A plain find-then-save races with a concurrent
+     * recommend of the same outfit, and the loser's constraint violation would roll back its
+     * whole transaction, so the insert is an INSERT IGNORE followed by a locking re-read.
+     */
+    private Outfit internOutfit(WardrobeItem top, WardrobeItem bottom, WardrobeItem outer) {
+        long outerKey = Outfit.outerKey(outer);
+        return outfitRepository.findByItemKey(top.getId(), bottom.getId(), outerKey)
+                .orElseGet(() -> {
+                    outfitRepository.insertIfAbsent(top.getId(), bottom.getId(),
+                            outer != null ? outer.getId() : null, outerKey);
+                    return outfitRepository.findLockedByItemKey(top.getId(), bottom.getId(), outerKey)
+                            .orElseThrow();
+                });
+    }
+
+    /**
+     * Finds or inserts the label, with the same INSERT IGNORE and locking re-read as
+     * {@link #internOutfit}, since concurrent first uses of a place or mood race the same way.
+     */
+    private FitLabel internLabel(String value) {
+        if (value == null) {
+            return null;
+        }
+        Long id = labelIds.get(value);
+        if (id != null) {
+            return fitLabelRepository.getReferenceById(id);
+        }
+        FitLabel label = fitLabelRepository.findByValue(value)
+                .orElseGet(() -> {
+                    fitLabelRepository.insertIfAbsent(value);
+                    return fitLabelRepository.findLockedByValue(value).orElseThrow();
+                });
+        cacheLabelId(value, label.getId());
+        return label;
+    }
+
+    private static void validateLabel(String field, String value) {
+        if (value != null && value.length() > FitLabel.MAX_LENGTH) {
+            throw new IllegalArgumentException(field + " must be at most " + FitLabel.MAX_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Caches the id once the row is committed; a rolled-back insert would otherwise leave an id
+     * that every later FitHistory references and fails its foreign key on.
+     */
+    private void cacheLabelId(String value, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putLabelId(value, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putLabelId(value, id);
             }
-            recommendedReason = "랜덤 추천 (AI 응답 실패 또는 조건 미충족)";
+        });
+    }
+
+    private void putLabelId(String value, Long id) {
+        if (labelIds.size() < MAX_CACHED_LABELS) {
+            labelIds.put(value, id);
         }
+    }
 
-        // Save History
-        FitHistory history = FitHistory.builder()
-                .user(user)
-                .top(recommendedTop)
-                .bottom(recommendedBottom)
-                .outer(recommendedOuter)
-                .place(request.place())
-                .mood(request.mood() != null ? request.mood() : "Daily") // Default if null
-                .season(season.name())
-                .recommendationReason(recommendedReason)
-                .build();
+    private boolean sharesTopAndBottom(List<Candidate> candidates, WardrobeItem top, WardrobeItem bottom) {
+        return candidates.stream()
+                .anyMatch(c -> c.top().getId().equals(top.getId()) && c.bottom().getId().equals(bottom.getId()));
+    }
 
-        fitHistoryRepository.save(history);
+    private List<WardrobeItem> loadCandidates(Long userId, Season season) {
+        if (season == Season.ALL) {
+            return wardrobeItemRepository.findAllByUserIdOrderByCreatedAtDesc(userId);
+        }
+        return wardrobeItemRepository.findAllByUserIdAndSeasonIn(userId, List.of(season, Season.ALL));
+    }
 
-        return FitResponseDto.of(request.place(), request.mood() != null ? request.mood() : "Daily", season.name(),
-                recommendedTop, recommendedBottom, recommendedOuter, recommendedReason);
+    /**
+     * Client-provided weather wins, then server-resolved weather, then a neutral default.
+     */
+    private String describeWeather(String requested, SimpleWeatherDto resolved) {
+        if (hasText(requested)) {
+            return requested;
+        }
+        if (resolved != null) {
+            return String.format("%s, %.0f°C", resolved.description(), resolved.temperature());
+        }
+        return "Sunny, 20°C"; // Default fallback
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     private WardrobeItem findItemById(List<WardrobeItem> items, Long id) {
@@ -147,24 +377,22 @@ public class FitService {
     }
 
     @Transactional(readOnly = true)
-    public java.util.List<com.fittim.backend.dto.FitHistoryDto> getFitHistory(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        // Fetch top 10
-        return fitHistoryRepository
-                .findTopByUserIdOrderByCreatedAtDesc(user.getId(),
-                        org.springframework.data.domain.PageRequest.of(0, 10))
-                .stream()
-                .map(com.fittim.backend.dto.FitHistoryDto::from)
-                .collect(Collectors.toList());
+    public java.util.List<com.fittim.backend.dto.FitHistoryDto> getFitHistory(Long userId) {
+        // Fetch top 10 as a join projection over outfit and label tables
+        return fitHistoryRepository.findHistoryByUserId(userId,
+                org.springframework.data.domain.PageRequest.of(0, 10));
     }
 
     @Transactional(readOnly = true)
     public com.fittim.backend.dto.FitHistoryDetailDto getFitHistoryDetail(Long id) {
-        FitHistory history = fitHistoryRepository.findById(id)
+        FitHistory history = fitHistoryRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Fit history not found"));
-        return com.fittim.backend.dto.FitHistoryDetailDto.from(history);
+        Outfit outfit = history.getOutfit();
+        List<Long> itemIds = new ArrayList<>(List.of(outfit.getTop().getId(), outfit.getBottom().getId()));
+        if (outfit.getOuter() != null) {
+            itemIds.add(outfit.getOuter().getId());
+        }
+        return com.fittim.backend.dto.FitHistoryDetailDto.from(history, wardrobeReader.findByIds(itemIds));
     }
 
     private List<WardrobeItem> filterByCategory(List<WardrobeItem> items, Category category) {
@@ -173,6 +401,31 @@ public class FitService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Orders all top/bottom pairs by random jitter in [0, 1) minus a repeat penalty. A pair
+     * recommended within the look-back window loses a flat {@link #REPEAT_PENALTY_BASE} plus its
+     * age-decayed penalty, so every repeat ranks below every fresh pair; among repeats, older
+     * ones tend to rank higher, though jitter can still reorder them.
+     */
+    private List<ScoredPair> rankPairs(Long userId, List<WardrobeItem> tops, List<WardrobeItem> bottoms) {
+        List<ScoredPair> pairs = new ArrayList<>(tops.size() * bottoms.size());
+        for (WardrobeItem top : tops) {
+            for (WardrobeItem bottom : bottoms) {
+                double repeat = recentFitCache.repeatPenalty(userId, top.getId(), bottom.getId());
+                double score = random.nextDouble() - (repeat > 0 ? REPEAT_PENALTY_BASE + repeat : 0.0);
+                pairs.add(new ScoredPair(top, bottom, score));
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(ScoredPair::score).reversed());
+        return pairs;
+    }
+
+    private record ScoredPair(WardrobeItem top, WardrobeItem bottom, double score) {
+    }
+
+    private record Candidate(WardrobeItem top, WardrobeItem bottom, WardrobeItem outer, String reason) {
+    }
+
     private WardrobeItem getRandomItem(List<WardrobeItem> items) {
         if (items.isEmpty())
             return null;
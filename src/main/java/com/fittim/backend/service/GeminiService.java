@@ -1,12 +1,14 @@
 package com.fittim.backend.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fittim.backend.dto.GeminiDto;
 import com.fittim.backend.dto.GeminiDto.Content;
 import com.fittim.backend.dto.GeminiDto.GenerateContentRequest;
 import com.fittim.backend.dto.GeminiDto.Part;
 import com.fittim.backend.dto.GeminiDto.RecommendationResult;
+import com.fittim.backend.dto.GeminiDto.RecommendationResults;
 import com.fittim.backend.entity.WardrobeItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,53 +35,75 @@ public class GeminiService {
     private final ObjectMapper objectMapper;
     private final WebClient webClient;
 
-    public RecommendationResult recommend(List<WardrobeItem> userItems, String place, String mood, String season,
-            String weather) {
+    /**
+     * Asks Gemini for up to {@code count} ranked outfits in a single call.
+     *
+     * @return ranked results, or an empty list on failure (fallback is handled by the calling service)
+     */
+    public List<RecommendationResult> recommend(List<WardrobeItem> userItems, String place, String mood,
+            String season, String weather, List<long[]> recentPairs, int count) {
         try {
-            String prompt = createPrompt(userItems, place, mood, season, weather);
+            String prompt = createPrompt(userItems, place, mood, season, weather, recentPairs, count);
+            long start = System.nanoTime();
             String responseJson = callGeminiApi(prompt);
+            // Prompt size vs. latency, to track the effect of candidate pruning
+            log.info("Gemini recommend: {} items, {} prompt chars, {} ms", userItems.size(), prompt.length(),
+                    (System.nanoTime() - start) / 1_000_000);
             return parseResponse(responseJson);
         } catch (Exception e) {
             log.error("Gemini API Error: {}", e.getMessage());
-            return null; // Fallback will be handled by calling service
+            return List.of();
         }
     }
 
-    private String createPrompt(List<WardrobeItem> items, String place, String mood, String season, String weather)
-            throws JsonProcessingException {
+    private String createPrompt(List<WardrobeItem> items, String place, String mood, String season, String weather,
+            List<long[]> recentPairs, int count) throws JsonProcessingException {
         // Simple item representation for token efficiency
         List<Map<String, Object>> simpleItems = items.stream().map(item -> {
             Map<String, Object> map = new java.util.HashMap<>();
             map.put("id", item.getId());
             map.put("category", item.getCategory().name());
             map.put("season", item.getSeason().name());
+            if (item.getColors() != null && !item.getColors().isEmpty()) {
+                map.put("colors", item.getColors());
+            }
             return map;
         }).collect(Collectors.toList());
 
         String itemsJson = objectMapper.writeValueAsString(simpleItems);
+        String recentJson = objectMapper.writeValueAsString(recentPairs);
 
         return String.format(
                 """
                         너는 20대 MZ세대를 위한 미니멀 패션 스타일리스트야.
-                        아래 [옷장 목록] 중에서 [상황: %s, %s, %s, 날씨: %s]에 가장 잘 어울리는 코디를 조합해줘.
+                        아래 [옷장 목록] 중에서 [상황: %s, %s, %s, 날씨: %s]에 가장 잘 어울리는 코디를 %d개 조합해줘.
 
                         [응답 규칙]
                         1. 무조건 아래 JSON 형식으로만 응답할 것 (Markdown 코드블록 금지).
                         2. `reason` 필드에 **이 코디를 추천한 구체적인 이유**를 한국어로 1~2문장 작성할 것. (예: "오늘 날씨가 맑아서 화사한 베이지 톤으로 매치했습니다.")
+                        3. [최근 추천 조합]에 있는 [topId, bottomId] 조합은 다른 선택지가 있다면 피할 것 (앞쪽일수록 최근).
+                        4. `outfits` 배열에 추천 순서대로 담을 것. 어떤 두 코디도 topId와 bottomId가 동시에 같아서는 안 됨.
 
                         [JSON 형식]
                         {
-                          "topId": (정수),
-                          "bottomId": (정수),
-                          "outerId": (정수 or null),
-                          "shoesId": (정수 or null),
-                          "reason": "여기에 추천 사유 작성"
+                          "outfits": [
+                            {
+                              "topId": (정수),
+                              "bottomId": (정수),
+                              "outerId": (정수 or null),
+                              "shoesId": (정수 or null),
+                              "reason": "여기에 추천 사유 작성"
+                            }
+                          ]
                         }
 
                         [옷장 목록]
                         %s
+
+                        [최근 추천 조합]
+                        %s
                         """,
-                place, mood, season, weather, itemsJson);
+                place, mood, season, weather, count, itemsJson, recentJson);
     }
 
     private String callGeminiApi(String prompt) {
@@ -116,11 +140,17 @@ public class GeminiService {
         throw new RuntimeException("Empty response from Gemini");
     }
 
-    private RecommendationResult parseResponse(String rawText) {
+    private List<RecommendationResult> parseResponse(String rawText) {
         try {
             // Cleanup markdown code blocks if present
             String jsonText = rawText.replaceAll("```json", "").replaceAll("```", "").trim();
-            return objectMapper.readValue(jsonText, RecommendationResult.class);
+            JsonNode root = objectMapper.readTree(jsonText);
+            if (!root.has("outfits")) {
+                // Tolerate the single-object format
+                return List.of(objectMapper.treeToValue(root, RecommendationResult.class));
+            }
+            RecommendationResults results = objectMapper.treeToValue(root, RecommendationResults.class);
+            return results.outfits() != null ? results.outfits() : List.of();
         } catch (JsonProcessingException e) {
             log.error("Failed to parse Gemini response: {}", rawText);
             throw new RuntimeException("JSON Parsing Failed");
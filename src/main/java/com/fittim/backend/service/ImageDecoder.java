@@ -0,0 +1,107 @@
+package com.fittim.backend.service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadProgressListener;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Decodes small working copies of stored images for analysis (colors, perceptual hash).
+ * Source subsampling keeps memory proportional to the target size, not the photo size.
+ */
+final class ImageDecoder {
+
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private ImageDecoder() {
+    }
+
+    /**
+     * @param targetSize approximate longest side wanted; the result is at least this large
+     * @param deadline   System.nanoTime() after which decoding is aborted
+     * @return the decoded image, or null if the format is unsupported or the deadline passed
+     */
+    static BufferedImage decode(Path file, int targetSize, long deadline) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / targetSize);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                DeadlineListener listener = new DeadlineListener(deadline);
+                if (deadline != NO_DEADLINE) {
+                    reader.addIIOReadProgressListener(listener);
+                }
+                BufferedImage image = reader.read(0, param);
+                return listener.aborted ? null : image;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Aborts a decode from the reading thread itself once the deadline has passed.
+     */
+    private static final class DeadlineListener implements IIOReadProgressListener {
+
+        private final long deadline;
+        private boolean aborted;
+
+        DeadlineListener(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void imageProgress(ImageReader source, float percentageDone) {
+            if (System.nanoTime() > deadline) {
+                source.abort();
+            }
+        }
+
+        @Override
+        public void readAborted(ImageReader source) {
+            aborted = true;
+        }
+
+        @Override
+        public void sequenceStarted(ImageReader source, int minIndex) {
+        }
+
+        @Override
+        public void sequenceComplete(ImageReader source) {
+        }
+
+        @Override
+        public void imageStarted(ImageReader source, int imageIndex) {
+        }
+
+        @Override
+        public void imageComplete(ImageReader source) {
+        }
+
+        @Override
+        public void thumbnailStarted(ImageReader source, int imageIndex, int thumbnailIndex) {
+        }
+
+        @Override
+        public void thumbnailProgress(ImageReader source, float percentageDone) {
+        }
+
+        @Override
+        public void thumbnailComplete(ImageReader source) {
+        }
+    }
+}
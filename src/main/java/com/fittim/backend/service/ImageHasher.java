@@ -0,0 +1,77 @@
+package com.fittim.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 64-bit difference hash (dHash): the image is reduced to a 9x8 grayscale grid and each bit
+ * records whether a cell is darker than its right neighbour. Re-encoded, resized or slightly
+ * recompressed copies of a photo land within a few bits of each other.
+ */
+@Slf4j
+@Component
+public class ImageHasher {
+
+    private static final int DECODE_SIZE = 64;
+
+    /**
+     * @return the hash, or null if the file is not a decodable image
+     */
+    public Long hash(Path file) {
+        try {
+            BufferedImage image = ImageDecoder.decode(file, DECODE_SIZE, ImageDecoder.NO_DEADLINE);
+            return image == null ? null : dHash(image);
+        } catch (IOException e) {
+            log.warn("Could not hash {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] cells = new double[9 * 8];
+        for (int row = 0; row < 8; row++) {
+            int y0 = row * height / 8;
+            int y1 = Math.max(y0 + 1, (row + 1) * height / 8);
+            for (int col = 0; col < 9; col++) {
+                int x0 = col * width / 9;
+                int x1 = Math.max(x0 + 1, (col + 1) * width / 9);
+                double sum = 0;
+                for (int y = y0; y < Math.min(y1, height); y++) {
+                    for (int x = x0; x < Math.min(x1, width); x++) {
+                        sum += luminance(image.getRGB(x, y));
+                    }
+                }
+                cells[row * 9 + col] = sum / ((Math.min(y1, height) - y0) * (Math.min(x1, width) - x0));
+            }
+        }
+
+        long hash = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                hash = (hash << 1) | (cells[row * 9 + col] < cells[row * 9 + col + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Rec. 601 luma, with transparent pixels composited onto white.
+     */
+    private static double luminance(int argb) {
+        double alpha = ((argb >>> 24) & 0xff) / 255.0;
+        double r = ((argb >> 16) & 0xff) * alpha + 255 * (1 - alpha);
+        double g = ((argb >> 8) & 0xff) * alpha + 255 * (1 - alpha);
+        double b = (argb & 0xff) * alpha + 255 * (1 - alpha);
+        return 0.299 * r + 0.587 * g + 0.114 * b;
+    }
+}
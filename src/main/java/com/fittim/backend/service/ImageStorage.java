@@ -0,0 +1,39 @@
+package com.fittim.backend.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Where image files live once ImageStore has hashed and placed them. ImageStore keeps a local
+ * working copy under its root for hashing and variant generation; the storage holds the copy
+ * every node serves from. Selected with {@code image.storage.type} (local or s3).
+ */
+public interface ImageStorage {
+
+    record StoredObject(String key, long size, Instant lastModified) {
+    }
+
+    /**
+     * Publishes a finished file under its key. Keys are content-addressed, so writing an
+     * existing key again is harmless; it also marks the object as recently written.
+     */
+    void put(String key, Path file, String contentType) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * @return a URL clients can fetch the image from directly, or empty when
+     *         ImageController should serve the local copy itself
+     */
+    Optional<URI> redirectUrl(String key);
+
+    /**
+     * Every stored object in ascending key order, fetched lazily so a walk over the whole
+     * store holds only one listing page in memory. Iteration failures surface as UncheckedIOException.
+     */
+    Iterator<StoredObject> list() throws IOException;
+}
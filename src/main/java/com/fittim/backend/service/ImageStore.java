@@ -0,0 +1,264 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.event.StoredImageReleasedEvent;
+import com.fittim.backend.repository.StoredImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image files under {@code uploads/}.
+ * Uploads are hashed (SHA-256) while they stream to a temp file and then moved to
+ * {@code ab/cd/<hash>.<ext>}, so identical photos share one file. StoredImage rows count the
+ * items referencing each file; the file is removed after the last reference is deleted.
+ * Placed files are published to the configured {@link ImageStorage}; the local copy is the
+ * working file for hashing and variant generation.
+ */
+@Slf4j
+@Component
+public class ImageStore {
+
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final StoredImageRepository storedImageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageStorage imageStorage;
+    private final Path root;
+    private final Path incoming;
+
+    public ImageStore(StoredImageRepository storedImageRepository, ApplicationEventPublisher eventPublisher,
+            ImageStorage imageStorage, @Value("${image.storage.root:uploads}") String root) {
+        this.storedImageRepository = storedImageRepository;
+        this.eventPublisher = eventPublisher;
+        this.imageStorage = imageStorage;
+        this.root = Paths.get(root).toAbsolutePath();
+        this.incoming = this.root.resolve(".incoming");
+    }
+
+    /**
+     * @param key  path relative to the storage root, also the public path under /images/
+     * @param size bytes on disk
+     */
+    public record Stored(String key, long size) {
+    }
+
+    /**
+     * Streams the upload to disk while hashing it. Touches no database state, so it is safe
+     * to call off the request thread; call {@link #retain} inside the saving transaction.
+     */
+    public Stored store(MultipartFile image) throws IOException {
+        Path temp = createIncomingFile("upload-");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(image.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return place(temp, digest, image.getOriginalFilename());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Moves a fully written incoming file (see {@link #createIncomingFile}) into the store.
+     * The source is consumed either way.
+     */
+    public Stored storeFile(Path source, String originalFilename) throws IOException {
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return place(source, digest, originalFilename);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    /**
+     * Temp file on the same file system as the store, so {@link #storeFile} is a rename.
+     */
+    public Path createIncomingFile(String prefix) throws IOException {
+        Files.createDirectories(incoming);
+        return Files.createTempFile(incoming, prefix, ".tmp");
+    }
+
+    public Path incomingDirectory() {
+        return incoming;
+    }
+
+    private Stored place(Path temp, MessageDigest digest, String originalFilename) throws IOException {
+        long size = Files.size(temp);
+        String hash = HEX.formatHex(digest.digest());
+        String key = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + "."
+                + extension(originalFilename);
+        Path target = resolve(key);
+        boolean placed = false;
+        if (Files.exists(target)) {
+            log.debug("Deduplicated upload {}", key); // same bytes already stored
+        } else {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                placed = true;
+            } catch (FileAlreadyExistsException e) {
+                log.debug("Deduplicated concurrent upload {}", key);
+            }
+        }
+        // Duplicates are published again too: that restores a copy the orphan sweeper may have
+        // taken from the storage and restarts its grace period until this upload is retained
+        try {
+            imageStorage.put(key, target, contentType(key));
+        } catch (IOException | RuntimeException e) {
+            if (placed) {
+                // Otherwise the next identical upload would be deduplicated against an unpublished file
+                Files.deleteIfExists(target);
+            }
+            throw e;
+        }
+        return new Stored(key, size);
+    }
+
+    /**
+     * Publishes a file derived from a stored image (e.g. a variant) written under the root.
+     */
+    public void publish(Path file) throws IOException {
+        String key = key(file.toAbsolutePath());
+        imageStorage.put(key, file, contentType(key));
+    }
+
+    public Path resolve(String key) {
+        return root.resolve(key);
+    }
+
+    /**
+     * Resolves a public image path to a readable file, rejecting traversal outside the root
+     * and the in-progress temp directory.
+     */
+    public Optional<Path> lookup(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.startsWith(incoming) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * @return where clients should fetch the image from, when the storage serves it directly
+     */
+    public Optional<URI> redirectUrl(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.startsWith(incoming)) {
+            return Optional.empty();
+        }
+        return imageStorage.redirectUrl(key(file));
+    }
+
+    private String key(Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * Adds one reference. Without a row to increment, the image is new or its files were just
+     * deleted by {@link #onReleased}; in the latter case the file this upload deduplicated
+     * against is gone, so the upload fails instead of referencing a missing image. A new row is
+     * inserted with no references and then incremented, so two concurrent first uploads of the
+     * same bytes share one row instead of failing on its primary key.
+     */
+    @Transactional
+    public void retain(Stored stored) {
+        if (storedImageRepository.incrementRefCount(stored.key()) == 0) {
+            if (!Files.exists(resolve(stored.key()))) {
+                throw new IllegalStateException("Stored image was deleted concurrently: " + stored.key());
+            }
+            storedImageRepository.insertIfAbsent(stored.key(), stored.size());
+            storedImageRepository.incrementRefCount(stored.key());
+        }
+    }
+
+    /**
+     * Drops one reference. The row stays at zero until the files are deleted after commit.
+     */
+    @Transactional
+    public void release(String key) {
+        if (storedImageRepository.decrementRefCount(key) > 0
+                && storedImageRepository.findRefCount(key).orElse(-1) == 0) {
+            eventPublisher.publishEvent(new StoredImageReleasedEvent(key));
+        }
+    }
+
+    /**
+     * Deletes the files under the zero-count row's lock, the same row a retain increments: a
+     * retain either revives the row first, and nothing is deleted, or waits until the files and
+     * the row are gone.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onReleased(StoredImageReleasedEvent event) {
+        if (storedImageRepository.lockUnreferenced(event.imageKey()).isEmpty()) {
+            return; // re-uploaded in the meantime
+        }
+        List<String> keys = List.of(
+                ImageVariantService.variantName(event.imageKey(), ImageVariantService.THUMBNAIL_SUFFIX),
+                ImageVariantService.variantName(event.imageKey(), ImageVariantService.MEDIUM_SUFFIX),
+                event.imageKey());
+        try {
+            for (String key : keys) {
+                Files.deleteIfExists(resolve(key));
+                imageStorage.delete(key);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to delete released image {}: {}", event.imageKey(), e.getMessage());
+        }
+        storedImageRepository.deleteIfUnreferenced(event.imageKey());
+    }
+
+    private static String contentType(String key) {
+        return MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    private static String extension(String filename) {
+        if (filename != null) {
+            int dot = filename.lastIndexOf('.');
+            String ext = dot >= 0 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+            if (EXTENSION.matcher(ext).matches()) {
+                return ext;
+            }
+        }
+        return "img";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.event.WardrobeImageStoredEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates thumbnail and medium JPEG variants of uploaded wardrobe images.
+ * Runs after the upload transaction commits, on a bounded executor, so uploads return
+ * without waiting. Re-encoding writes pixels only, which strips EXIF/GPS metadata.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    public static final String THUMBNAIL_SUFFIX = "_thumb.jpg";
+    public static final String MEDIUM_SUFFIX = "_medium.jpg";
+
+    private static final int THUMBNAIL_SIZE = 240;
+    private static final int MEDIUM_SIZE = 960;
+
+    @Value("${image.variants.quality:0.8}")
+    private float quality;
+
+    private final WardrobeService wardrobeService;
+    private final ImageStore imageStore;
+    private final MeterRegistry meterRegistry;
+    @Qualifier("imageVariantExecutor")
+    private final ThreadPoolTaskExecutor imageVariantExecutor;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("image.variants.backlog", imageVariantExecutor,
+                executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Uploaded images waiting for variant generation")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageStored(WardrobeImageStoredEvent event) {
+        try {
+            imageVariantExecutor.execute(() -> generate(event));
+        } catch (TaskRejectedException e) {
+            // Clients fall back to the original imageUrl when variants are missing
+            meterRegistry.counter("image.variants.rejected").increment();
+            log.warn("Variant backlog full, skipping item {}", event.itemId());
+        }
+    }
+
+    private void generate(WardrobeImageStoredEvent event) {
+        long start = System.nanoTime();
+        try {
+            Path thumbnail = variantPath(event.file(), THUMBNAIL_SUFFIX);
+            Path medium = variantPath(event.file(), MEDIUM_SUFFIX);
+            if (Files.exists(thumbnail) && Files.exists(medium)) {
+                // Deduplicated upload: the shared original already has variants
+                updateUrls(event);
+                return;
+            }
+
+            BufferedImage source = read(event.file(), MEDIUM_SIZE);
+            if (source == null) {
+                log.warn("Unsupported image format for item {}: {}", event.itemId(), event.file());
+                return;
+            }
+
+            BufferedImage mediumImage = scaleToFit(source, MEDIUM_SIZE);
+            writeJpeg(mediumImage, medium);
+            writeJpeg(scaleToFit(mediumImage, THUMBNAIL_SIZE), thumbnail);
+            imageStore.publish(medium);
+            imageStore.publish(thumbnail);
+
+            updateUrls(event);
+            meterRegistry.timer("image.variants.duration").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            log.error("Variant generation failed for item {}: {}", event.itemId(), e.getMessage());
+        }
+    }
+
+    private void updateUrls(WardrobeImageStoredEvent event) {
+        wardrobeService.setVariantUrls(event.userId(), event.itemId(),
+                variantUrl(event.imageUrl(), THUMBNAIL_SUFFIX),
+                variantUrl(event.imageUrl(), MEDIUM_SUFFIX));
+    }
+
+    /**
+     * Replaces the extension of the last path segment with the variant suffix.
+     * Works on both file names and (already encoded) URLs.
+     */
+    public static String variantName(String name, String suffix) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        String base = dot > slash ? name.substring(0, dot) : name;
+        return base + suffix;
+    }
+
+    static Path variantPath(Path original, String suffix) {
+        return original.resolveSibling(variantName(original.getFileName().toString(), suffix));
+    }
+
+    static String variantUrl(String imageUrl, String suffix) {
+        return variantName(imageUrl, suffix);
+    }
+
+    /**
+     * Decodes with source subsampling so a 12MP photo never lands in memory at full size,
+     * then applies the EXIF orientation that re-encoding would otherwise lose.
+     */
+    private BufferedImage read(Path file, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, false);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (targetSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                BufferedImage image = reader.read(0, param);
+                return orient(image, exifOrientation(reader.getImageMetadata(0)));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Always redraw into RGB: JPEG has no alpha channel
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param); // no metadata
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private BufferedImage orient(BufferedImage image, int orientation) {
+        int quarterTurns = switch (orientation) {
+            case 3 -> 2;
+            case 6 -> 1;
+            case 8 -> 3;
+            default -> 0;
+        };
+        if (quarterTurns == 0) {
+            return image;
+        }
+
+        boolean swap = quarterTurns % 2 == 1;
+        int width = swap ? image.getHeight() : image.getWidth();
+        int height = swap ? image.getWidth() : image.getHeight();
+        BufferedImage rotated = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rotated.createGraphics();
+        try {
+            AffineTransform transform = new AffineTransform();
+            transform.translate(width / 2.0, height / 2.0);
+            transform.quadrantRotate(quarterTurns);
+            transform.translate(-image.getWidth() / 2.0, -image.getHeight() / 2.0);
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return rotated;
+    }
+
+    /**
+     * Reads the TIFF orientation tag (0x0112) from the JPEG APP1/Exif segment, or 1 if absent.
+     */
+    private int exifOrientation(IIOMetadata metadata) {
+        if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+            return 1;
+        }
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0");
+        NodeList markers = root.getElementsByTagName("unknown");
+        for (int i = 0; i < markers.getLength(); i++) {
+            IIOMetadataNode marker = (IIOMetadataNode) markers.item(i);
+            if (!"225".equals(marker.getAttribute("MarkerTag"))) { // APP1
+                continue;
+            }
+            byte[] data = (byte[]) marker.getUserObject();
+            if (data == null || data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i'
+                    || data[3] != 'f') {
+                continue;
+            }
+            int tiff = 6;
+            boolean littleEndian = data[tiff] == 'I';
+            int ifd = tiff + readInt(data, tiff + 4, littleEndian);
+            if (ifd + 2 > data.length) {
+                return 1;
+            }
+            int entries = readShort(data, ifd, littleEndian);
+            for (int e = 0; e < entries; e++) {
+                int entry = ifd + 2 + e * 12;
+                if (entry + 10 > data.length) {
+                    return 1;
+                }
+                if (readShort(data, entry, littleEndian) == 0x0112) {
+                    return readShort(data, entry + 8, littleEndian);
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int a = data[offset] & 0xff;
+        int b = data[offset + 1] & 0xff;
+        return littleEndian ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int hi = readShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+        int lo = readShort(data, littleEndian ? offset : offset + 2, littleEndian);
+        return (hi << 16) | lo;
+    }
+}
@@ -0,0 +1,152 @@
+package com.fittim.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Single-node storage: the ImageStore root itself, served by ImageController.
+ */
+@Component
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalImageStorage implements ImageStorage {
+
+    private final Path root;
+
+    public LocalImageStorage(@Value("${image.storage.root:uploads}") String root) {
+        this.root = Paths.get(root).toAbsolutePath();
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        Path target = root.resolve(key);
+        if (target.equals(file.toAbsolutePath())) {
+            // Placed there by ImageStore already; a repeat upload only refreshes its age
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(root.resolve(key));
+    }
+
+    @Override
+    public Optional<URI> redirectUrl(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Iterator<StoredObject> list() throws IOException {
+        return new SortedWalk(root);
+    }
+
+    /**
+     * Depth-first walk that holds one sorted directory listing per level. Directories sort as
+     * {@code name/}, so the walk yields keys in the same order as comparing the key strings.
+     * Hidden entries (e.g. ImageStore's .incoming directory) are skipped.
+     */
+    private static final class SortedWalk implements Iterator<StoredObject> {
+
+        private static final Comparator<Entry> BY_KEY_ORDER = Comparator.comparing(Entry::sortName);
+
+        private final Path root;
+        private final Deque<Iterator<Entry>> levels = new ArrayDeque<>();
+        private StoredObject next;
+
+        SortedWalk(Path root) throws IOException {
+            this.root = root;
+            if (Files.isDirectory(root)) {
+                levels.push(entries(root));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !levels.isEmpty()) {
+                    Iterator<Entry> level = levels.peek();
+                    if (!level.hasNext()) {
+                        levels.pop();
+                        continue;
+                    }
+                    Entry entry = level.next();
+                    if (entry.attributes().isDirectory()) {
+                        levels.push(entries(entry.path()));
+                    } else if (entry.attributes().isRegularFile()) {
+                        String key = root.relativize(entry.path()).toString()
+                                .replace(root.getFileSystem().getSeparator(), "/");
+                        next = new StoredObject(key, entry.attributes().size(),
+                                entry.attributes().lastModifiedTime().toInstant());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return next != null;
+        }
+
+        @Override
+        public StoredObject next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            StoredObject current = next;
+            next = null;
+            return current;
+        }
+
+        private static Iterator<Entry> entries(Path directory) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    if (path.getFileName().toString().startsWith(".")) {
+                        continue;
+                    }
+                    try {
+                        entries.add(new Entry(path, Files.readAttributes(path, BasicFileAttributes.class)));
+                    } catch (NoSuchFileException e) {
+                        // deleted while listing
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                return Collections.emptyIterator();
+            }
+            entries.sort(BY_KEY_ORDER);
+            return entries.iterator();
+        }
+
+        private record Entry(Path path, BasicFileAttributes attributes) {
+
+            String sortName() {
+                String name = path.getFileName().toString();
+                return attributes.isDirectory() ? name + "/" : name;
+            }
+        }
+    }
+}
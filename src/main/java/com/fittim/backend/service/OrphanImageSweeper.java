@@ -0,0 +1,151 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.repository.WardrobeItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deletes stored images no wardrobe item references: files stored by uploads whose transaction
+ * then failed, and anything a missed release left behind. Storage keys and the items' image keys
+ * are both walked in key order and merged, so memory stays at one page of each side however
+ * large the store grows. Objects younger than the grace period are kept, because an upload
+ * stores its file before the transaction that references it commits.
+ * Only content-addressed keys are swept; files from before content addressing are left alone.
+ */
+@Slf4j
+@Component
+public class OrphanImageSweeper {
+
+    // ab/cd/<sha-256>, then an optional variant suffix and the extension
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile(
+            "([0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64})(?:_thumb|_medium)?\\.[a-z0-9]{1,5}");
+
+    private final ImageStorage imageStorage;
+    private final ImageStore imageStore;
+    private final WardrobeItemRepository wardrobeItemRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration gracePeriod;
+    private final int pageSize;
+
+    public OrphanImageSweeper(ImageStorage imageStorage, ImageStore imageStore,
+            WardrobeItemRepository wardrobeItemRepository, MeterRegistry meterRegistry,
+            @Value("${image.sweeper.grace-period:24h}") Duration gracePeriod,
+            @Value("${image.sweeper.page-size:1000}") int pageSize) {
+        this.imageStorage = imageStorage;
+        this.imageStore = imageStore;
+        this.wardrobeItemRepository = wardrobeItemRepository;
+        this.meterRegistry = meterRegistry;
+        this.gracePeriod = gracePeriod;
+        this.pageSize = pageSize;
+    }
+
+    public record SweepResult(long scanned, long deleted, long reclaimedBytes) {
+    }
+
+    @Scheduled(fixedDelayString = "${image.sweeper.interval:6h}", initialDelayString = "${image.sweeper.interval:6h}")
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Orphan image sweep failed: {}", e.getMessage());
+        }
+    }
+
+    public SweepResult sweep() throws IOException {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        ReferencedImages referenced = new ReferencedImages();
+        long scanned = 0;
+        long deleted = 0;
+        long reclaimedBytes = 0;
+
+        Iterator<ImageStorage.StoredObject> objects = imageStorage.list();
+        while (objects.hasNext()) {
+            ImageStorage.StoredObject object = objects.next();
+            scanned++;
+            String image = imageOf(object.key());
+            if (image == null || object.lastModified().isAfter(cutoff) || referenced.contains(image)) {
+                continue;
+            }
+            // Referenced after its page was read
+            if (wardrobeItemRepository.existsByImageKeyStartingWith(image + ".")) {
+                continue;
+            }
+            try {
+                imageStorage.delete(object.key());
+                Files.deleteIfExists(imageStore.resolve(object.key())); // this node's working copy
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to delete orphaned image {}: {}", object.key(), e.getMessage());
+                continue;
+            }
+            deleted++;
+            reclaimedBytes += object.size();
+        }
+
+        meterRegistry.counter("image.sweeper.deleted").increment(deleted);
+        meterRegistry.counter("image.sweeper.reclaimed.bytes").increment(reclaimedBytes);
+        log.info("Orphan image sweep scanned {} objects, deleted {}, reclaimed {} bytes", scanned, deleted,
+                reclaimedBytes);
+        return new SweepResult(scanned, deleted, reclaimedBytes);
+    }
+
+    /**
+     * @return the key without variant suffix and extension, shared by an original and its
+     *         variants, or null if the key is not content-addressed
+     */
+    static String imageOf(String key) {
+        Matcher matcher = CONTENT_ADDRESSED.matcher(key);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Cursor over referenced images in ascending order, loaded one keyset page at a time.
+     * Hashes are fixed-width hex, so key order and image order agree on both sides of the merge,
+     * and lookups arrive in non-decreasing order.
+     */
+    private final class ReferencedImages {
+
+        private Iterator<String> page = Collections.emptyIterator();
+        private String lastKey = "";
+        private boolean exhausted;
+        private String current;
+
+        boolean contains(String image) {
+            while ((current == null || current.compareTo(image) < 0) && advance()) {
+                // skip referenced images below this one
+            }
+            return image.equals(current);
+        }
+
+        private boolean advance() {
+            if (!page.hasNext()) {
+                if (exhausted) {
+                    return false;
+                }
+                List<String> keys = wardrobeItemRepository.findImageKeysAfter(lastKey, PageRequest.of(0, pageSize));
+                exhausted = keys.size() < pageSize;
+                if (keys.isEmpty()) {
+                    return false;
+                }
+                lastKey = keys.get(keys.size() - 1);
+                page = keys.iterator();
+            }
+            current = imageOf(page.next());
+            return true;
+        }
+    }
+}
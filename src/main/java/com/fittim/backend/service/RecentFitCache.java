@@ -0,0 +1,178 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.repository.FitHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user memory of recently recommended outfits.
+ * Each outfit's top and bottom ids are kept in a fixed-size ring buffer, so repeat checks never hit
+ * the database. The buffer is loaded from FitHistory on first access and appended once a
+ * selection commits; buffers not read since the last eviction pass are dropped.
+ */
+@Slf4j
+@Component
+public class RecentFitCache {
+
+    private final FitHistoryRepository fitHistoryRepository;
+    private final int window;
+    private final Map<Long, OutfitRing> rings = new ConcurrentHashMap<>();
+
+    public RecentFitCache(FitHistoryRepository fitHistoryRepository,
+            @Value("${fit.history.window:20}") int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("fit.history.window must be positive: " + window);
+        }
+        this.fitHistoryRepository = fitHistoryRepository;
+        this.window = window;
+    }
+
+    /**
+     * Returns a penalty in [0, 1] for recommending the given pair again.
+     * 1.0 means it was the latest outfit, decaying linearly to 0 outside the
+     * look-back window.
+     */
+    public double repeatPenalty(Long userId, Long topId, Long bottomId) {
+        int age = ring(userId).ageOfPair(topId, bottomId);
+        if (age < 0) {
+            return 0.0;
+        }
+        return (double) (window - age) / window;
+    }
+
+    /**
+     * Recent (topId, bottomId) pairs, newest first. Used as an avoid-list for the AI prompt.
+     */
+    public List<long[]> recentPairs(Long userId) {
+        return ring(userId).pairs();
+    }
+
+    /**
+     * Appends the outfit after the surrounding transaction commits, so a rolled-back
+     * selection never shows up as a repeat. Users without a loaded buffer are skipped;
+     * their first read loads the committed row.
+     */
+    public void record(Long userId, Long topId, Long bottomId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(userId, topId, bottomId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(userId, topId, bottomId);
+            }
+        });
+    }
+
+    /**
+     * Drops buffers not read since the last pass, which bounds memory to recently active users.
+     */
+    @Scheduled(fixedDelayString = "${fit.history.evict-interval:1h}")
+    public void evictIdle() {
+        int evicted = 0;
+        for (Map.Entry<Long, OutfitRing> entry : rings.entrySet()) {
+            OutfitRing ring = entry.getValue();
+            if (!ring.read) {
+                if (rings.remove(entry.getKey(), ring)) {
+                    evicted++;
+                }
+            } else {
+                ring.read = false;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle recent-outfit buffers", evicted);
+        }
+    }
+
+    int size() {
+        return rings.size();
+    }
+
+    private void append(Long userId, Long topId, Long bottomId) {
+        OutfitRing ring = rings.get(userId);
+        if (ring != null) {
+            ring.add(topId, bottomId);
+        }
+    }
+
+    private OutfitRing ring(Long userId) {
+        OutfitRing ring = rings.computeIfAbsent(userId, this::load);
+        ring.read = true;
+        return ring;
+    }
+
+    private OutfitRing load(Long userId) {
+        List<Object[]> rows = fitHistoryRepository.findRecentOutfitIds(userId, PageRequest.of(0, window));
+        OutfitRing ring = new OutfitRing(window);
+        // Rows are newest first; replay oldest first so the ring order matches insertion order
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object[] row = rows.get(i);
+            ring.add((Long) row[0], (Long) row[1]);
+        }
+        log.debug("Loaded {} recent outfits for user {}", rows.size(), userId);
+        return ring;
+    }
+
+    /**
+     * Fixed-capacity ring buffer of (top, bottom) pairs.
+     */
+    static final class OutfitRing {
+
+        private final Long[] tops;
+        private final Long[] bottoms;
+        private int head; // next write position
+        private int size;
+        private volatile boolean read;
+
+        OutfitRing(int capacity) {
+            this.tops = new Long[capacity];
+            this.bottoms = new Long[capacity];
+        }
+
+        synchronized void add(Long topId, Long bottomId) {
+            tops[head] = topId;
+            bottoms[head] = bottomId;
+            head = (head + 1) % tops.length;
+            if (size < tops.length) {
+                size++;
+            }
+        }
+
+        /**
+         * @return 0 for the newest entry, or -1 if the pair is not in the buffer
+         */
+        synchronized int ageOfPair(Long topId, Long bottomId) {
+            for (int age = 0; age < size; age++) {
+                int index = indexOf(age);
+                if (tops[index].equals(topId) && bottoms[index].equals(bottomId)) {
+                    return age;
+                }
+            }
+            return -1;
+        }
+
+        synchronized List<long[]> pairs() {
+            List<long[]> result = new java.util.ArrayList<>(size);
+            for (int age = 0; age < size; age++) {
+                int index = indexOf(age);
+                result.add(new long[] { tops[index], bottoms[index] });
+            }
+            return result;
+        }
+
+        private int indexOf(int age) {
+            return Math.floorMod(head - 1 - age, tops.length);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.config.JwtTokenProvider;
+import com.fittim.backend.dto.JwtResponse;
+import com.fittim.backend.entity.RefreshToken;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.repository.RefreshTokenRepository;
+import com.fittim.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens, so clients renew their access token without sending the password again.
+ * A login starts a session; every refresh replaces the refresh token with a new one in the
+ * same session. A refresh token that is presented after it was replaced has leaked (or
+ * belongs to a client that lost the response), so the whole session is revoked, including
+ * its unexpired access tokens.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    public static final String INVALID_TOKEN = "Invalid refresh token";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RevokedSessions revokedSessions;
+    private final Duration ttl;
+    private final long accessTokenValidityMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            JwtTokenProvider jwtTokenProvider, RevokedSessions revokedSessions,
+            @Value("${jwt.refresh-expiration:14d}") Duration ttl,
+            @Value("${jwt.expiration:3600000}") long accessTokenValidityMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revokedSessions = revokedSessions;
+        this.ttl = ttl;
+        this.accessTokenValidityMillis = accessTokenValidityMillis;
+    }
+
+    @Transactional
+    public JwtResponse startSession(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    // Commit the revocation of a reused token even though the request fails
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public JwtResponse refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new IllegalArgumentException(INVALID_TOKEN));
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getRevokedAt() != null || stored.getExpiresAt().isBefore(now)) {
+            throw new IllegalArgumentException(INVALID_TOKEN);
+        }
+        // Conditional update, so of two concurrent refreshes with one token only one wins
+        if (refreshTokenRepository.markUsed(stored.getId(), now) == 0) {
+            log.warn("Refresh token reused; revoking session {} of user {}", stored.getSessionId(),
+                    stored.getUserId());
+            revoke(stored.getSessionId());
+            throw new IllegalArgumentException(INVALID_TOKEN);
+        }
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new IllegalArgumentException(INVALID_TOKEN));
+        return issue(user, stored.getSessionId());
+    }
+
+    /**
+     * Ends the session the token belongs to. Unknown tokens are ignored, so logging out twice is harmless.
+     */
+    @Transactional
+    public void logout(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(stored -> revoke(stored.getSessionId()));
+    }
+
+    /**
+     * Deletes tokens expired for longer than an access token lives; by then no access token
+     * of their session can still be valid, so their revocation no longer needs to be known.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(
+                LocalDateTime.now().minus(Duration.ofMillis(accessTokenValidityMillis)));
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private JwtResponse issue(User user, String sessionId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), user.getId(), sessionId,
+                LocalDateTime.now().plus(ttl)));
+        String accessToken = jwtTokenProvider.createToken(user.getId(), user.getEmail(), user.getRole(), sessionId);
+        return new JwtResponse(accessToken, refreshToken);
+    }
+
+    private void revoke(String sessionId) {
+        refreshTokenRepository.revokeSession(sessionId, LocalDateTime.now());
+        revokedSessions.add(sessionId);
+    }
+
+    static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.repository.SyncCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user versions of the resources clients poll, used as ETags so an unchanged read is
+ * answered with 304 after a single primary-key lookup instead of the full query.
+ * Versions come from the user's sync counter, which lives in the database and so is shared
+ * by every instance: a write on one node changes the ETag every node serves. A write bumps
+ * the counter inside its own transaction, so the new version and the new data become
+ * visible together. All resources share the one counter, so a change to any of them also
+ * revalidates the others, which only costs an extra download.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    // Only prefixes the ETag, so one resource's tag never matches another's
+    public enum Resource {
+        WARDROBE, PROFILE, HISTORY
+    }
+
+    // Clients may keep the body but must revalidate it on every use
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final SyncService syncService;
+    private final SyncCounterRepository syncCounterRepository;
+
+    public String etag(Long userId, Resource resource) {
+        long version = syncCounterRepository.findVersionByUserId(userId).orElse(0L);
+        return "\"" + resource.name().charAt(0) + version + "\"";
+    }
+
+    /**
+     * Changes the ETag of every resource of the user. Must run inside the writing transaction;
+     * writes that already allocated a sync version in it reuse that version.
+     */
+    public void bump(Long userId) {
+        syncService.nextVersion(userId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.repository.RefreshTokenRepository;
+import com.fittim.backend.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Login sessions revoked by logout or refresh-token reuse, checked for every access token.
+ * A bloom filter of the revoked session ids answers "not revoked" without a query; only a hit
+ * (a revoked session, or a false positive about 1% of the time) is confirmed against the store.
+ * The filter holds sessions revoked within one access-token lifetime, since older access
+ * tokens have expired anyway, and is rebuilt from the store periodically. A revocation takes
+ * effect at once on the node that made it and on other nodes after their next sync.
+ */
+@Slf4j
+@Component
+public class RevokedSessions {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long accessTokenValidityMillis;
+    // Revoked here since the running sync started; re-added in case its query missed them
+    private final Queue<String> recentlyRevoked = new ConcurrentLinkedQueue<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+
+    public RevokedSessions(RefreshTokenRepository refreshTokenRepository,
+            @Value("${jwt.expiration:3600000}") long accessTokenValidityMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenValidityMillis = accessTokenValidityMillis;
+    }
+
+    /**
+     * @param sessionId the access token's session claim; tokens without one are never revoked
+     */
+    public boolean isRevoked(String sessionId) {
+        if (sessionId == null || !filter.mightContain(sessionId)) {
+            return false;
+        }
+        return refreshTokenRepository.existsBySessionIdAndRevokedAtIsNotNull(sessionId);
+    }
+
+    /**
+     * Adds a session revoked in the current transaction once it commits.
+     */
+    public void add(String sessionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addNow(sessionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addNow(sessionId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:30s}")
+    public synchronized void sync() {
+        // Anything revoked before this point has committed, so the query below sees it
+        recentlyRevoked.clear();
+        List<String> sessionIds = refreshTokenRepository.findSessionIdsRevokedAfter(
+                LocalDateTime.now().minus(Duration.ofMillis(accessTokenValidityMillis)));
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_CAPACITY, sessionIds.size() * 2), FALSE_POSITIVE_RATE);
+        sessionIds.forEach(rebuilt::add);
+        filter = rebuilt;
+        recentlyRevoked.forEach(rebuilt::add);
+        log.debug("Loaded {} revoked sessions", sessionIds.size());
+    }
+
+    private void addNow(String sessionId) {
+        recentlyRevoked.add(sessionId);
+        filter.add(sessionId);
+    }
+}
@@ -0,0 +1,254 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.util.AwsSigV4Signer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Images in an S3-compatible bucket (AWS S3, MinIO, R2, ...), addressed path-style so any
+ * endpoint works. Files are streamed from disk, in multipart uploads above the part size, and
+ * clients download through short-lived presigned URLs so image bytes never pass through this JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "s3")
+public class S3ImageStorage implements ImageStorage {
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    // Keys are content hashes, so an object never changes once written
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LIST_PAGE_SIZE = 1000; // S3's maximum
+    private static final Pattern CONTENTS = Pattern.compile("<Contents>(.*?)</Contents>", Pattern.DOTALL);
+
+    private final WebClient webClient;
+    private final String bucketUrl;
+    private final AwsSigV4Signer signer;
+    private final long partSize;
+    private final Duration presignTtl;
+
+    public S3ImageStorage(WebClient webClient,
+            @Value("${image.storage.s3.endpoint}") String endpoint,
+            @Value("${image.storage.s3.bucket}") String bucket,
+            @Value("${image.storage.s3.region:us-east-1}") String region,
+            @Value("${image.storage.s3.access-key}") String accessKey,
+            @Value("${image.storage.s3.secret-key}") String secretKey,
+            @Value("${image.storage.s3.part-size:8MB}") DataSize partSize,
+            @Value("${image.storage.s3.presign-ttl:10m}") Duration presignTtl) {
+        this.webClient = webClient;
+        this.bucketUrl = endpoint.replaceAll("/+$", "") + "/" + AwsSigV4Signer.encode(bucket);
+        this.signer = new AwsSigV4Signer(accessKey, secretKey, region, "s3");
+        this.partSize = partSize.toBytes();
+        this.presignTtl = presignTtl;
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        long size = Files.size(file);
+        if (size <= partSize) {
+            send(HttpMethod.PUT, objectUri(key, null),
+                    Map.of(HttpHeaders.CONTENT_TYPE, contentType, HttpHeaders.CACHE_CONTROL, IMMUTABLE),
+                    fileRegion(file, 0, size), size);
+        } else {
+            multipartUpload(key, file, size, contentType);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        send(HttpMethod.DELETE, objectUri(key, null), Map.of(), null, 0);
+    }
+
+    @Override
+    public Optional<URI> redirectUrl(String key) {
+        return Optional.of(signer.presign("GET", objectUri(key, null), presignTtl, Instant.now()));
+    }
+
+    /**
+     * ListObjectsV2 returns keys in ascending UTF-8 byte order, which is String order for the
+     * ASCII keys ImageStore writes.
+     */
+    @Override
+    public Iterator<StoredObject> list() {
+        return new Iterator<>() {
+            private Iterator<StoredObject> page = Collections.emptyIterator();
+            private String continuationToken;
+            private boolean lastPage;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && !lastPage) {
+                    try {
+                        fetchPage();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public StoredObject next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+
+            private void fetchPage() throws IOException {
+                String query = "list-type=2&max-keys=" + LIST_PAGE_SIZE + (continuationToken != null
+                        ? "&continuation-token=" + AwsSigV4Signer.encode(continuationToken)
+                        : "");
+                String body = send(HttpMethod.GET, URI.create(bucketUrl + "?" + query), Map.of(), null, 0).getBody();
+                body = body == null ? "" : body;
+
+                List<StoredObject> objects = new ArrayList<>();
+                Matcher contents = CONTENTS.matcher(body);
+                while (contents.find()) {
+                    String object = contents.group(1);
+                    objects.add(new StoredObject(unescape(element(object, "Key")),
+                            Long.parseLong(element(object, "Size")), Instant.parse(element(object, "LastModified"))));
+                }
+                page = objects.iterator();
+                continuationToken = "true".equals(element(body, "IsTruncated"))
+                        ? unescape(element(body, "NextContinuationToken"))
+                        : null;
+                lastPage = continuationToken == null;
+            }
+        };
+    }
+
+    /**
+     * Each part streams straight from its region of the file, so no part is buffered in memory.
+     * A failed upload is aborted so the bucket does not keep orphaned parts.
+     */
+    private void multipartUpload(String key, Path file, long size, String contentType) throws IOException {
+        ResponseEntity<String> initiated = send(HttpMethod.POST, objectUri(key, "uploads"),
+                Map.of(HttpHeaders.CONTENT_TYPE, contentType, HttpHeaders.CACHE_CONTROL, IMMUTABLE), null, 0);
+        Matcher matcher = UPLOAD_ID.matcher(initiated.getBody() == null ? "" : initiated.getBody());
+        if (!matcher.find()) {
+            throw new IOException("S3 did not return an upload id for " + key);
+        }
+        String uploadQuery = "uploadId=" + AwsSigV4Signer.encode(matcher.group(1));
+
+        try {
+            List<String> etags = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += partSize) {
+                long length = Math.min(partSize, size - offset);
+                ResponseEntity<String> part = send(HttpMethod.PUT,
+                        objectUri(key, "partNumber=" + (etags.size() + 1) + "&" + uploadQuery), Map.of(),
+                        fileRegion(file, offset, length), length);
+                etags.add(part.getHeaders().getETag());
+            }
+
+            StringBuilder complete = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < etags.size(); i++) {
+                complete.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                        .append(etags.get(i)).append("</ETag></Part>");
+            }
+            complete.append("</CompleteMultipartUpload>");
+            byte[] body = complete.toString().getBytes(StandardCharsets.UTF_8);
+            ResponseEntity<String> completed = send(HttpMethod.POST, objectUri(key, uploadQuery),
+                    Map.of(HttpHeaders.CONTENT_TYPE, "application/xml"), BodyInserters.fromValue(body), body.length);
+            // S3 may answer 200 and report a failed completion in the body
+            if (completed.getBody() != null && completed.getBody().contains("<Error>")) {
+                throw new IOException("S3 multipart completion failed for " + key + ": " + completed.getBody());
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                send(HttpMethod.DELETE, objectUri(key, uploadQuery), Map.of(), null, 0);
+            } catch (IOException abort) {
+                e.addSuppressed(abort);
+            }
+            throw e;
+        }
+    }
+
+    private ResponseEntity<String> send(HttpMethod method, URI uri, Map<String, String> headers,
+            BodyInserter<?, ReactiveHttpOutputMessage> body, long contentLength) throws IOException {
+        Map<String, String> signed = signer.sign(method.name(), uri, headers, AwsSigV4Signer.UNSIGNED_PAYLOAD,
+                Instant.now());
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(httpHeaders -> signed.forEach(httpHeaders::set));
+        try {
+            ResponseEntity<String> response = (body != null
+                    ? request.contentLength(contentLength).body(body)
+                    : request)
+                    .retrieve()
+                    .toEntity(String.class)
+                    .block();
+            if (response == null) {
+                throw new IOException("S3 " + method + " " + uri.getRawPath() + " returned no response");
+            }
+            return response;
+        } catch (WebClientResponseException e) {
+            throw new IOException("S3 " + method + " " + uri.getRawPath() + " failed with " + e.getStatusCode()
+                    + ": " + e.getResponseBodyAsString(), e);
+        } catch (RuntimeException e) {
+            throw new IOException("S3 " + method + " " + uri.getRawPath() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private URI objectUri(String key, String query) {
+        StringBuilder uri = new StringBuilder(bucketUrl);
+        for (String segment : key.split("/")) {
+            uri.append('/').append(AwsSigV4Signer.encode(segment));
+        }
+        if (query != null) {
+            uri.append('?').append(query);
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static String element(String xml, String name) {
+        Matcher matcher = Pattern.compile("<" + name + ">([^<]*)</" + name + ">").matcher(xml);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String unescape(String text) {
+        return text == null ? null : text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private static BodyInserter<Flux<DataBuffer>, ReactiveHttpOutputMessage> fileRegion(Path file, long offset,
+            long length) {
+        Flux<DataBuffer> buffers = DataBufferUtils.readAsynchronousFileChannel(
+                () -> AsynchronousFileChannel.open(file, StandardOpenOption.READ), offset,
+                DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE);
+        return BodyInserters.fromDataBuffers(DataBufferUtils.takeUntilByteCount(buffers, length));
+    }
+}
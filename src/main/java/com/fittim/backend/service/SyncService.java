@@ -0,0 +1,100 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.SyncChangesDto;
+import com.fittim.backend.entity.WardrobeTombstone;
+import com.fittim.backend.repository.FitHistoryRepository;
+import com.fittim.backend.repository.SyncCounterRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import com.fittim.backend.repository.WardrobeTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync. Every write to a user's wardrobe items or fit history stamps the rows with the
+ * user's next change version (deletes leave a tombstone), so a client holding version N
+ * downloads only rows with a higher version instead of the whole closet.
+ * One version is allocated per user per transaction; the counter row stays locked until
+ * commit, so a client never sees version N+1 before every row of version N is visible.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private final SyncCounterRepository syncCounterRepository;
+    private final WardrobeTombstoneRepository wardrobeTombstoneRepository;
+    private final WardrobeItemRepository wardrobeItemRepository;
+    private final FitHistoryRepository fitHistoryRepository;
+    private final WardrobeReader wardrobeReader;
+
+    /**
+     * @return the version the current transaction writes for this user
+     */
+    public long nextVersion(Long userId) {
+        return transactionVersions().computeIfAbsent(userId, this::increment);
+    }
+
+    public void recordWardrobeDeletion(Long userId, Long itemId) {
+        wardrobeTombstoneRepository.save(new WardrobeTombstone(userId, itemId, nextVersion(userId)));
+    }
+
+    /**
+     * @param since version from the previous sync; null for a full download
+     */
+    @Transactional(readOnly = true)
+    public SyncChangesDto changes(Long userId, Long since) {
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+
+        long version = syncCounterRepository.findVersionByUserId(userId).orElse(0L);
+        if (since != null && since == version) {
+            return new SyncChangesDto(version, false, List.of(), List.of(), List.of(), List.of());
+        }
+
+        // A version ahead of the server's (e.g. after a data reset) also gets a full download.
+        // Rows written before delta sync existed carry version 0.
+        boolean full = since == null || since > version;
+        long from = full ? -1 : since;
+        return new SyncChangesDto(version, full,
+                wardrobeReader.toDtos(wardrobeItemRepository.findChangedRows(userId, from, version)),
+                full ? List.of() : wardrobeTombstoneRepository.findDeletedItemIds(userId, from, version),
+                fitHistoryRepository.findChangedHistory(userId, from, version),
+                full ? List.of() : fitHistoryRepository.findDeselectedIds(userId, from, version));
+    }
+
+    private long increment(Long userId) {
+        if (syncCounterRepository.increment(userId) == 0) {
+            // The user's first write. Of two concurrent first writes, one inserts and the other
+            // skips the insert; its UPDATE then waits for the first one's row lock.
+            syncCounterRepository.insertIfAbsent(userId);
+            syncCounterRepository.increment(userId);
+        }
+        return syncCounterRepository.findVersionByUserId(userId).orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> transactionVersions() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Sync versions must be allocated inside a transaction");
+        }
+        Map<Long, Long> versions = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (versions == null) {
+            versions = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, versions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SyncService.this);
+                }
+            });
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,260 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.UploadSessionDto;
+import com.fittim.backend.dto.UploadSessionRequest;
+import com.fittim.backend.dto.WardrobeBulkItemRequest;
+import com.fittim.backend.dto.WardrobeUploadResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable wardrobe image uploads.
+ * A session reserves a temp file next to the image store; chunks are written at their
+ * offsets with positional FileChannel writes, so a client that lost its connection asks for
+ * the current offset and continues from there. Completing the session hashes the file into
+ * the store and creates the WardrobeItem; the session is dropped only once the item exists, so a
+ * failed completion can be retried. Idle sessions expire and their files are deleted.
+ */
+@Slf4j
+@Service
+public class UploadSessionService {
+
+    private static final int MAX_SESSIONS_PER_USER = 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FILE_PREFIX = "session-";
+
+    private final ImageStore imageStore;
+    private final WardrobeService wardrobeService;
+    private final long maxSize;
+    private final Duration ttl;
+
+    // In-memory like AuthService's verification codes; sessions do not survive a restart
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public UploadSessionService(ImageStore imageStore, WardrobeService wardrobeService,
+            @Value("${image.upload.max-size:10MB}") DataSize maxSize,
+            @Value("${image.upload.session-ttl:24h}") Duration ttl) {
+        this.imageStore = imageStore;
+        this.wardrobeService = wardrobeService;
+        this.maxSize = maxSize.toBytes();
+        this.ttl = ttl;
+    }
+
+    private static final class UploadSession {
+        final String id;
+        final Long userId;
+        final String filename;
+        final long size;
+        final WardrobeBulkItemRequest item;
+        final Path file;
+        long offset;
+        boolean completing;
+        ImageStore.Stored stored; // set once the file has moved into the store
+        volatile long lastTouched = System.currentTimeMillis();
+
+        UploadSession(String id, Long userId, String filename, long size, WardrobeBulkItemRequest item, Path file) {
+            this.id = id;
+            this.userId = userId;
+            this.filename = filename;
+            this.size = size;
+            this.item = item;
+            this.file = file;
+        }
+    }
+
+    public UploadSessionDto create(Long userId, UploadSessionRequest request) throws IOException {
+        if (request.size() == null || request.size() <= 0 || request.size() > maxSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxSize + " bytes");
+        }
+        if (request.filename() == null || request.filename().isBlank()) {
+            throw new IllegalArgumentException("filename is required");
+        }
+        WardrobeBulkItemRequest item = request.toItemRequest();
+        wardrobeService.validateMetadata(item);
+
+        long open = sessions.values().stream().filter(session -> session.userId.equals(userId)).count();
+        if (open >= MAX_SESSIONS_PER_USER) {
+            throw new IllegalArgumentException("Too many open upload sessions");
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), userId, request.filename(),
+                request.size(), item, imageStore.createIncomingFile(FILE_PREFIX));
+        sessions.put(session.id, session);
+        return toDto(session);
+    }
+
+    /**
+     * Writes one chunk starting at {@code offset}. Chunks may overlap bytes already received
+     * (a retried chunk), but may not leave a gap.
+     */
+    public UploadSessionDto writeChunk(Long userId, String id, long offset, InputStream body) throws IOException {
+        UploadSession session = find(userId, id);
+        synchronized (session) {
+            if (session.completing || session.stored != null) {
+                throw new IllegalArgumentException("Upload is already being completed");
+            }
+            if (offset < 0 || offset > session.offset) {
+                throw new IllegalArgumentException(
+                        "Invalid offset " + offset + ", expected at most " + session.offset);
+            }
+
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+                ReadableByteChannel in = Channels.newChannel(body);
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    if (position + buffer.remaining() > session.size) {
+                        throw new IllegalArgumentException("Chunk exceeds declared size " + session.size);
+                    }
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    buffer.clear();
+                }
+            } finally {
+                // Keep whatever arrived before a dropped connection so the client can resume from it
+                session.offset = Math.max(session.offset, Math.min(position, session.size));
+                session.lastTouched = System.currentTimeMillis();
+            }
+            return toDto(session);
+        }
+    }
+
+    public UploadSessionDto status(Long userId, String id) {
+        return toDto(find(userId, id));
+    }
+
+    /**
+     * Stores the file and creates the item. If creating the item fails, the session keeps the
+     * stored image and a retried completion only repeats the item creation. If storing fails,
+     * the temp file is already gone, so the session ends and the client starts a new one.
+     */
+    public WardrobeUploadResult complete(Long userId, String id) throws IOException {
+        UploadSession session = find(userId, id);
+        synchronized (session) {
+            if (session.offset < session.size) {
+                throw new IllegalArgumentException(
+                        "Upload incomplete: " + session.offset + " of " + session.size + " bytes");
+            }
+            if (session.completing) {
+                throw new IllegalArgumentException("Upload is already being completed");
+            }
+            session.completing = true;
+            session.lastTouched = System.currentTimeMillis();
+        }
+        try {
+            if (session.stored == null) {
+                try {
+                    session.stored = imageStore.storeFile(session.file, session.filename);
+                } catch (IOException | RuntimeException e) {
+                    sessions.remove(id, session);
+                    deleteQuietly(session.file);
+                    throw e;
+                }
+            }
+            WardrobeUploadResult result = wardrobeService.createItem(userId, session.stored, session.item);
+            sessions.remove(id, session);
+            return result;
+        } finally {
+            synchronized (session) {
+                session.completing = false;
+            }
+        }
+    }
+
+    public void abort(Long userId, String id) throws IOException {
+        UploadSession session = find(userId, id);
+        synchronized (session) {
+            if (session.completing) {
+                throw new IllegalArgumentException("Upload is already being completed");
+            }
+            sessions.remove(id, session);
+            Files.deleteIfExists(session.file);
+        }
+    }
+
+    /**
+     * Drops idle sessions, then deletes session files no live session owns
+     * (left behind by a restart).
+     */
+    @Scheduled(fixedDelayString = "${image.upload.gc-interval:10m}")
+    public void expireSessions() {
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        sessions.values().removeIf(session -> {
+            if (session.lastTouched >= cutoff) {
+                return false;
+            }
+            synchronized (session) {
+                if (session.completing) {
+                    return false;
+                }
+                deleteQuietly(session.file);
+            }
+            return true;
+        });
+
+        Path incoming = imageStore.incomingDirectory();
+        if (!Files.isDirectory(incoming)) {
+            return;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(incoming, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                boolean owned = sessions.values().stream().anyMatch(session -> session.file.equals(file));
+                if (!owned && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    deleteQuietly(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Upload session cleanup failed: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} abandoned upload session files", deleted);
+        }
+    }
+
+    private UploadSession find(Long userId, String id) {
+        UploadSession session = sessions.get(id);
+        if (session == null || !session.userId.equals(userId)) {
+            throw new IllegalArgumentException("Upload session not found");
+        }
+        return session;
+    }
+
+    private UploadSessionDto toDto(UploadSession session) {
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(session.lastTouched).plus(ttl), ZoneId.systemDefault());
+        return new UploadSessionDto(session.id, session.offset, session.size, expiresAt);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+}
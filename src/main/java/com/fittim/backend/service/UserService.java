@@ -12,17 +12,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
 
         private final UserRepository userRepository;
+        private final ResourceVersionService resourceVersions;
 
         @Transactional(readOnly = true)
-        public UserProfileDto getMyProfile(String email) {
-                User user = userRepository.findByEmail(email)
+        public UserProfileDto getMyProfile(Long userId) {
+                User user = userRepository.findById(userId)
                                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
                 return UserProfileDto.from(user);
         }
 
         @Transactional
-        public UserProfileDto updateProfile(String email, com.fittim.backend.dto.UserProfileUpdateDto dto) {
-                User user = userRepository.findByEmail(email)
+        public UserProfileDto updateProfile(Long userId, com.fittim.backend.dto.UserProfileUpdateDto dto) {
+                User user = userRepository.findById(userId)
                                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
                 user.updateProfile(
@@ -32,13 +33,14 @@ public class UserService {
                                 dto.gender(),
                                 dto.preferredStyles(),
                                 dto.preferredMalls());
+                resourceVersions.bump(userId);
 
                 return UserProfileDto.from(user);
         }
 
         @Transactional
-        public UserProfileDto patchProfile(String email, com.fittim.backend.dto.UserProfileUpdateDto dto) {
-                User user = userRepository.findByEmail(email)
+        public UserProfileDto patchProfile(Long userId, com.fittim.backend.dto.UserProfileUpdateDto dto) {
+                User user = userRepository.findById(userId)
                                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
                 user.patchProfile(
@@ -48,6 +50,7 @@ public class UserService {
                                 dto.gender(),
                                 dto.preferredStyles(),
                                 dto.preferredMalls());
+                resourceVersions.bump(userId);
 
                 return UserProfileDto.from(user);
         }
@@ -0,0 +1,69 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.dto.WardrobeRow;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds WardrobeDto lists from projection rows plus one set-based query per color/season
+ * collection, instead of hydrating WardrobeItem entities (whose EAGER collections cost two
+ * extra selects per item).
+ */
+@Component
+@RequiredArgsConstructor
+public class WardrobeReader {
+
+    private final WardrobeItemRepository wardrobeItemRepository;
+
+    @Transactional(readOnly = true)
+    public List<WardrobeDto> toDtos(List<WardrobeRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = rows.stream().map(WardrobeRow::id).toList();
+        Map<Long, List<String>> colors = groupByItem(wardrobeItemRepository.findColorsByItemIds(ids));
+        Map<Long, List<String>> seasons = groupByItem(wardrobeItemRepository.findSeasonsByItemIds(ids));
+
+        List<WardrobeDto> result = new ArrayList<>(rows.size());
+        for (WardrobeRow row : rows) {
+            result.add(WardrobeDto.of(row,
+                    seasons.getOrDefault(row.id(), new ArrayList<>()),
+                    colors.getOrDefault(row.id(), new ArrayList<>())));
+        }
+        return result;
+    }
+
+    // Lists, not sets: a color or season may legitimately appear twice in one item
+    private static Map<Long, List<String>> groupByItem(List<Object[]> pairs) {
+        Map<Long, List<String>> values = new LinkedHashMap<>();
+        for (Object[] pair : pairs) {
+            values.computeIfAbsent((Long) pair[0], key -> new ArrayList<>()).add((String) pair[1]);
+        }
+        return values;
+    }
+
+    /**
+     * @return DTOs keyed by item id; unknown ids are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, WardrobeDto> findByIds(Collection<Long> ids) {
+        Map<Long, WardrobeDto> result = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        for (WardrobeDto dto : toDtos(wardrobeItemRepository.findRowsByIdIn(ids))) {
+            result.put(dto.id(), dto);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,312 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.event.WardrobeItemChangedEvent;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user inverted index over wardrobe item name, brand and colors.
+ * Items are numbered densely per user; each term maps to a BitSet posting list, and
+ * category/season filters are BitSets too, so a query is a few word-wide ANDs/ORs.
+ * Terms sit in a TreeMap so a query token matches every term it prefixes. Hangul tokens are
+ * also indexed by their suffixes, which lets "조끼" find "니트조끼" without a morphological analyzer.
+ * Loaded from the database on first search and maintained from WardrobeItemChangedEvent after commit.
+ * Indexes not searched since the last eviction pass are dropped.
+ */
+@Slf4j
+@Component
+public class WardrobeSearchIndex {
+
+    // Indexed alongside the English color vocabulary so Korean queries match extracted colors
+    private static final Map<String, List<String>> COLOR_ALIASES = Map.ofEntries(
+            Map.entry("black", List.of("검정", "블랙")),
+            Map.entry("white", List.of("흰색", "화이트")),
+            Map.entry("gray", List.of("회색", "그레이")),
+            Map.entry("navy", List.of("네이비", "남색")),
+            Map.entry("blue", List.of("파랑", "블루")),
+            Map.entry("skyblue", List.of("하늘색", "스카이블루")),
+            Map.entry("beige", List.of("베이지")),
+            Map.entry("brown", List.of("갈색", "브라운")),
+            Map.entry("khaki", List.of("카키")),
+            Map.entry("green", List.of("초록", "그린")),
+            Map.entry("red", List.of("빨강", "레드")),
+            Map.entry("pink", List.of("분홍", "핑크")),
+            Map.entry("purple", List.of("보라", "퍼플")),
+            Map.entry("yellow", List.of("노랑", "옐로우")),
+            Map.entry("orange", List.of("주황", "오렌지")));
+
+    private final WardrobeItemRepository wardrobeItemRepository;
+    private final WardrobeReader wardrobeReader;
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    public WardrobeSearchIndex(WardrobeItemRepository wardrobeItemRepository, WardrobeReader wardrobeReader) {
+        this.wardrobeItemRepository = wardrobeItemRepository;
+        this.wardrobeReader = wardrobeReader;
+    }
+
+    /**
+     * @return matching item ids, newest first; every token must match (as a prefix) some term
+     */
+    public List<Long> search(Long userId, String query, Category category, Season season, int limit) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        UserIndex index = indexes.computeIfAbsent(userId, this::load);
+        index.read = true;
+        return index.search(tokens, category, season, limit);
+    }
+
+    /**
+     * Drops indexes not searched since the last pass, which bounds memory to recently active users.
+     */
+    @Scheduled(fixedDelayString = "${wardrobe.search.evict-interval:1h}")
+    public void evictIdle() {
+        int evicted = 0;
+        for (Map.Entry<Long, UserIndex> entry : indexes.entrySet()) {
+            UserIndex index = entry.getValue();
+            if (!index.read) {
+                if (indexes.remove(entry.getKey(), index)) {
+                    evicted++;
+                }
+            } else {
+                index.read = false;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle wardrobe search indexes", evicted);
+        }
+    }
+
+    int size() {
+        return indexes.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(WardrobeItemChangedEvent event) {
+        // Users whose index is not loaded yet will read the committed state on first search
+        indexes.computeIfPresent(event.userId(), (userId, index) -> {
+            if (event.deleted()) {
+                index.remove(event.itemId());
+            } else {
+                index.put(event.itemId(), event.category(), event.season(),
+                        terms(event.name(), event.brand(), event.colors()));
+            }
+            return index;
+        });
+    }
+
+    private UserIndex load(Long userId) {
+        UserIndex index = new UserIndex();
+        List<WardrobeDto> items = wardrobeReader.toDtos(
+                wardrobeItemRepository.findRowsByUserIdAndCategoryAndSeason(userId, null, null));
+        // Rows come newest first; index oldest first so doc order follows creation order
+        for (int i = items.size() - 1; i >= 0; i--) {
+            WardrobeDto item = items.get(i);
+            index.put(item.id(), item.category(), item.season(), terms(item.name(), item.brand(), item.colors()));
+        }
+        log.debug("Indexed {} wardrobe items for user {}", items.size(), userId);
+        return index;
+    }
+
+    static Set<String> terms(String name, String brand, List<String> colors) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokenize(name)) {
+            addWithSuffixes(terms, token);
+        }
+        for (String token : tokenize(brand)) {
+            addWithSuffixes(terms, token);
+        }
+        if (colors != null) {
+            for (String color : colors) {
+                for (String token : tokenize(color)) {
+                    terms.add(token);
+                    COLOR_ALIASES.getOrDefault(token, List.of()).forEach(terms::add);
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-cased runs of letters/digits, also split where the script changes ("유니클로shirt").
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        boolean currentHangul = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                flush(tokens, current);
+                continue;
+            }
+            boolean hangul = isHangul(c);
+            if (current.length() > 0 && hangul != currentHangul) {
+                flush(tokens, current);
+            }
+            currentHangul = hangul;
+            current.append(c);
+        }
+        flush(tokens, current);
+        return tokens;
+    }
+
+    private static void flush(Set<String> tokens, StringBuilder current) {
+        if (current.length() > 0) {
+            tokens.add(current.toString().toLowerCase(Locale.ROOT));
+            current.setLength(0);
+        }
+    }
+
+    private static void addWithSuffixes(Set<String> terms, String token) {
+        terms.add(token);
+        if (isHangul(token.charAt(0))) {
+            for (int i = 1; i < token.length(); i++) {
+                terms.add(token.substring(i));
+            }
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL;
+    }
+
+    static final class UserIndex {
+
+        private final TreeMap<String, BitSet> postings = new TreeMap<>();
+        private final Map<Category, BitSet> categories = new EnumMap<>(Category.class);
+        private final Map<Season, BitSet> seasons = new EnumMap<>(Season.class);
+        private final Map<Long, Integer> docsByItem = new HashMap<>();
+        private final List<Long> itemsByDoc = new ArrayList<>();
+        private final List<Set<String>> termsByDoc = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private volatile boolean read;
+
+        /**
+         * Adds an item, or re-indexes it under its existing doc, so an edit keeps the item's
+         * place in the creation order instead of ranking it as the newest.
+         */
+        synchronized void put(Long itemId, Category category, Season season, Set<String> terms) {
+            Integer existing = docsByItem.get(itemId);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unindex(doc);
+                termsByDoc.set(doc, terms);
+            } else {
+                if (itemsByDoc.size() > 2 * (live.cardinality() + 16)) {
+                    compact();
+                }
+                doc = itemsByDoc.size();
+                itemsByDoc.add(itemId);
+                termsByDoc.add(terms);
+                docsByItem.put(itemId, doc);
+                live.set(doc);
+            }
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new BitSet()).set(doc);
+            }
+            if (category != null) {
+                categories.computeIfAbsent(category, key -> new BitSet()).set(doc);
+            }
+            if (season != null) {
+                seasons.computeIfAbsent(season, key -> new BitSet()).set(doc);
+            }
+        }
+
+        synchronized void remove(Long itemId) {
+            Integer doc = docsByItem.remove(itemId);
+            if (doc == null) {
+                return;
+            }
+            live.clear(doc);
+            unindex(doc);
+        }
+
+        private void unindex(int doc) {
+            for (String term : termsByDoc.get(doc)) {
+                BitSet posting = postings.get(term);
+                posting.clear(doc);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            termsByDoc.set(doc, Set.of());
+            categories.values().forEach(bits -> bits.clear(doc));
+            seasons.values().forEach(bits -> bits.clear(doc));
+        }
+
+        synchronized List<Long> search(List<String> tokens, Category category, Season season, int limit) {
+            BitSet result = (BitSet) live.clone();
+            if (category != null) {
+                result.and(categories.getOrDefault(category, new BitSet()));
+            }
+            if (season != null) {
+                result.and(seasons.getOrDefault(season, new BitSet()));
+            }
+            for (String token : tokens) {
+                BitSet matches = new BitSet();
+                // Every term starting with the token: a contiguous TreeMap range
+                for (BitSet posting : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    matches.or(posting);
+                }
+                result.and(matches);
+                if (result.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            // Docs are numbered in creation order and keep their number on update, so walking down is newest first
+            List<Long> ids = new ArrayList<>();
+            for (int doc = result.length() - 1; doc >= 0 && ids.size() < limit; doc = result.previousSetBit(doc - 1)) {
+                ids.add(itemsByDoc.get(doc));
+            }
+            return ids;
+        }
+
+        /**
+         * Renumbers live docs densely, in their existing order, once deleted slots dominate.
+         */
+        private void compact() {
+            List<Long> items = new ArrayList<>(itemsByDoc);
+            List<Set<String>> terms = new ArrayList<>(termsByDoc);
+            Map<Integer, Category> docCategories = new HashMap<>();
+            Map<Integer, Season> docSeasons = new HashMap<>();
+            categories.forEach((category, bits) -> bits.stream().forEach(doc -> docCategories.put(doc, category)));
+            seasons.forEach((season, bits) -> bits.stream().forEach(doc -> docSeasons.put(doc, season)));
+            BitSet liveDocs = (BitSet) live.clone();
+
+            postings.clear();
+            categories.clear();
+            seasons.clear();
+            docsByItem.clear();
+            itemsByDoc.clear();
+            termsByDoc.clear();
+            live.clear();
+            liveDocs.stream().forEach(doc -> put(items.get(doc), docCategories.get(doc), docSeasons.get(doc),
+                    terms.get(doc)));
+        }
+    }
+}
@@ -1,137 +1,569 @@
 package com.fittim.backend.service;
 
+import com.fittim.backend.dto.WardrobeBatchOperation;
+import com.fittim.backend.dto.WardrobeBatchResultDto;
+import com.fittim.backend.dto.WardrobeBulkItemRequest;
+import com.fittim.backend.dto.WardrobeBulkResultDto;
+import com.fittim.backend.dto.WardrobeCursor;
 import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.dto.WardrobePageDto;
+import com.fittim.backend.dto.WardrobeStatsDto;
+import com.fittim.backend.dto.WardrobeUpdateDto;
+import com.fittim.backend.dto.WardrobeUploadResult;
+import com.fittim.backend.dto.WardrobeRow;
 import com.fittim.backend.entity.Category;
 import com.fittim.backend.entity.Season;
 import com.fittim.backend.entity.User;
 import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.event.WardrobeImageStoredEvent;
+import com.fittim.backend.event.WardrobeItemChangedEvent;
 import com.fittim.backend.repository.UserRepository;
 import com.fittim.backend.repository.WardrobeItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 @RequiredArgsConstructor
 public class WardrobeService {
 
+        private static final int DEFAULT_PAGE_SIZE = 20;
+        private static final int MAX_PAGE_SIZE = 100;
+        private static final int MAX_BULK_ITEMS = 100;
+        private static final int MAX_TEXT_LENGTH = 255; // default VARCHAR length of name, brand, color and season
+        private static final int DEFAULT_SEARCH_SIZE = 50;
+        private static final int LEAST_USED_SIZE = 5;
+
         private final WardrobeItemRepository wardrobeItemRepository;
         private final UserRepository userRepository;
+        private final WardrobeReader wardrobeReader;
+        private final ImageStore imageStore;
+        private final ImageHasher imageHasher;
+        private final DuplicateIndex duplicateIndex;
+        private final WardrobeSearchIndex wardrobeSearchIndex;
+        private final WardrobeStats wardrobeStats;
+        private final SyncService syncService;
+        private final ResourceVersionService resourceVersions;
+        private final ApplicationEventPublisher eventPublisher;
+        @Qualifier("imageExecutor")
+        private final Executor imageExecutor;
+
+        /**
+         * Stored image plus its perceptual hash, both computed off the request thread for bulk uploads.
+         */
+        private record StoredUpload(ImageStore.Stored stored, Long hash) {
+        }
 
         @Transactional
-        public WardrobeDto uploadItem(String username, com.fittim.backend.dto.WardrobeItemRequest request)
+        public WardrobeUploadResult uploadItem(Long userId, com.fittim.backend.dto.WardrobeItemRequest request)
                         throws IOException {
-                User user = userRepository.findByEmail(username)
-                                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+                User user = userRepository.getReferenceById(userId);
 
                 if (request.image().isEmpty()) {
                         throw new IllegalArgumentException("Image file is empty");
                 }
 
+                WardrobeBulkItemRequest metadata = request.toItemRequest();
+                validateMetadata(metadata);
+
                 // 1. Save Image
-                String imageUrl = saveImage(request.image());
+                StoredUpload upload = storeAndHash(request.image());
 
                 // 2. Save Item
-                Category category = Category.valueOf(request.category().toUpperCase());
-                Season seasonParam = (request.season() != null && !request.season().isEmpty())
-                                ? Season.valueOf(request.season().toUpperCase())
-                                : Season.ALL;
+                return saveUpload(user, upload, metadata);
+        }
 
-                WardrobeItem item = WardrobeItem.builder()
-                                .user(user)
-                                .category(category)
-                                .season(seasonParam)
-                                .imageUrl(imageUrl)
-                                .name(request.name())
-                                .brand(request.brand())
-                                .colors(request.colors())
-                                .userSeasons(request.seasons())
-                                .build();
+        /**
+         * Uploads many items at once. Images are stored in parallel on the bounded image pool,
+         * then all rows are inserted with one saveAll. Invalid or failed items are reported
+         * per index without failing the rest.
+         */
+        @Transactional
+        public List<WardrobeBulkResultDto> uploadItems(Long userId, List<MultipartFile> images,
+                        List<WardrobeBulkItemRequest> requests) {
+                if (images.size() != requests.size()) {
+                        throw new IllegalArgumentException("images and items must have the same length");
+                }
+                if (images.isEmpty() || images.size() > MAX_BULK_ITEMS) {
+                        throw new IllegalArgumentException("Bulk upload must contain 1 to " + MAX_BULK_ITEMS + " items");
+                }
+
+                User user = userRepository.getReferenceById(userId);
+                String contextUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+
+                int size = images.size();
+                List<WardrobeBulkResultDto> results = new ArrayList<>(Collections.nCopies(size, null));
+                List<CompletableFuture<StoredUpload>> stored = new ArrayList<>(Collections.nCopies(size, null));
+
+                // 1. Validate metadata, then start storing the valid images in parallel
+                for (int i = 0; i < size; i++) {
+                        MultipartFile image = images.get(i);
+                        WardrobeBulkItemRequest request = requests.get(i);
+                        try {
+                                if (image.isEmpty()) {
+                                        throw new IllegalArgumentException("Image file is empty");
+                                }
+                                validateMetadata(request);
+                        } catch (IllegalArgumentException e) {
+                                results.set(i, WardrobeBulkResultDto.failure(i, e.getMessage()));
+                                continue;
+                        }
+                        stored.set(i, CompletableFuture.supplyAsync(() -> {
+                                try {
+                                        return storeAndHash(image);
+                                } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                }
+                        }, imageExecutor));
+                }
+
+                // 2. Collect stored images and insert all rows together. Duplicates are looked up
+                // before saveAll, so an item can never match its own row.
+                List<WardrobeItem> items = new ArrayList<>();
+                List<Integer> itemIndexes = new ArrayList<>();
+                List<Long> committedDuplicates = new ArrayList<>();
+                List<Integer> earlierDuplicates = new ArrayList<>(); // position in items, or -1
+                for (int i = 0; i < size; i++) {
+                        if (stored.get(i) == null) {
+                                continue;
+                        }
+                        StoredUpload upload;
+                        try {
+                                upload = stored.get(i).join();
+                        } catch (CompletionException e) {
+                                results.set(i, WardrobeBulkResultDto.failure(i, "Image upload failed"));
+                                continue;
+                        }
+
+                        Long committed = findCommittedDuplicate(userId, upload.hash());
+                        committedDuplicates.add(committed);
+                        earlierDuplicates.add(committed == null ? findEarlierDuplicate(upload.hash(), items) : -1);
+                        imageStore.retain(upload.stored());
+                        items.add(newItem(user, upload, contextUrl, requests.get(i)));
+                        itemIndexes.add(i);
+                }
+
+                List<WardrobeItem> savedItems = wardrobeItemRepository.saveAll(items);
+                for (int k = 0; k < savedItems.size(); k++) {
+                        int index = itemIndexes.get(k);
+                        WardrobeItem saved = savedItems.get(k);
+                        publishImageStored(saved);
+                        eventPublisher.publishEvent(WardrobeItemChangedEvent.saved(saved));
+                        int earlier = earlierDuplicates.get(k);
+                        Long duplicateOf = earlier >= 0 ? savedItems.get(earlier).getId() : committedDuplicates.get(k);
+                        results.set(index, WardrobeBulkResultDto.success(index, WardrobeDto.from(saved), duplicateOf));
+                }
+                return results;
+        }
 
-                WardrobeItem savedItem = wardrobeItemRepository.save(item);
+        /**
+         * Creates an item for an image that is already on disk, e.g. a completed resumable upload.
+         */
+        @Transactional
+        public WardrobeUploadResult createItem(Long userId, ImageStore.Stored stored,
+                        WardrobeBulkItemRequest request) {
+                User user = userRepository.getReferenceById(userId);
+
+                return saveUpload(user, new StoredUpload(stored, imageHasher.hash(imageStore.resolve(stored.key()))),
+                                request);
+        }
 
-                return WardrobeDto.from(savedItem);
+        /**
+         * Applies automatically extracted colors, unless the user has entered colors in the meantime.
+         */
+        @Transactional
+        public void fillColors(Long itemId, List<String> colors) {
+                wardrobeItemRepository.findById(itemId)
+                                .filter(item -> item.fillColors(colors))
+                                .ifPresent(this::markChanged);
         }
 
+        /**
+         * Called from the variant pipeline once thumbnail/medium files exist.
+         */
         @Transactional
-        public WardrobeDto updateItem(Long id, com.fittim.backend.dto.WardrobeUpdateDto dto, String username) {
+        public void setVariantUrls(Long userId, Long itemId, String thumbnailUrl, String mediumUrl) {
+                wardrobeItemRepository.updateVariantUrls(itemId, thumbnailUrl, mediumUrl,
+                                syncService.nextVersion(userId));
+                resourceVersions.bump(userId);
+        }
+
+        /**
+         * Fails fast on metadata that would make item creation fail after the image was uploaded.
+         */
+        void validateMetadata(WardrobeBulkItemRequest request) {
+                parseCategory(request.category());
+                parseSeason(request.season());
+                String invalid = validateText(request.name(), request.brand(), request.colors(), request.seasons());
+                if (invalid != null) {
+                        throw new IllegalArgumentException(invalid);
+                }
+        }
+
+        @Transactional
+        public WardrobeDto updateItem(Long id, com.fittim.backend.dto.WardrobeUpdateDto dto, Long userId) {
                 WardrobeItem item = wardrobeItemRepository.findById(id)
                                 .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
-                if (!item.getUser().getEmail().equals(username)) {
+                if (!item.getUser().getId().equals(userId)) {
                         throw new IllegalArgumentException("Unauthorized");
                 }
 
                 item.update(dto.name(), dto.brand(), dto.colors(), dto.category(), dto.season(), dto.seasons());
+                markChanged(item);
                 return WardrobeDto.from(item);
         }
 
         @Transactional
-        public WardrobeDto patchItem(Long id, com.fittim.backend.dto.WardrobeUpdateDto dto, String username) {
+        public WardrobeDto patchItem(Long id, com.fittim.backend.dto.WardrobeUpdateDto dto, Long userId) {
                 WardrobeItem item = wardrobeItemRepository.findById(id)
                                 .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
-                if (!item.getUser().getEmail().equals(username)) {
+                if (!item.getUser().getId().equals(userId)) {
                         throw new IllegalArgumentException("Unauthorized");
                 }
 
                 item.patch(dto.name(), dto.brand(), dto.colors(), dto.category(), dto.season(), dto.seasons());
+                markChanged(item);
                 return WardrobeDto.from(item);
         }
 
         @Transactional
-        public void deleteItem(Long id, String username) {
+        public void deleteItem(Long id, Long userId) {
                 WardrobeItem item = wardrobeItemRepository.findById(id)
                                 .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
-                if (!item.getUser().getEmail().equals(username)) {
+                if (!item.getUser().getId().equals(userId)) {
                         throw new IllegalArgumentException("Unauthorized");
                 }
 
+                removeItem(item.getUser().getId(), item);
+        }
+
+        /**
+         * Applies patch/delete operations in one transaction. Ownership of every referenced item is
+         * checked with a single query, and the resulting UPDATE/DELETE statements are flushed as
+         * JDBC batches (hibernate.jdbc.batch_size). Invalid operations fail individually: whatever
+         * would violate a constraint at flush (an overlong value, deleting an item an outfit still
+         * references) is rejected up front, since a flush failure would roll back the whole batch.
+         */
+        @Transactional
+        public List<WardrobeBatchResultDto> applyBatch(Long userId, List<WardrobeBatchOperation> operations) {
+                if (operations == null || operations.isEmpty() || operations.size() > MAX_BULK_ITEMS) {
+                        throw new IllegalArgumentException("Batch must contain 1 to " + MAX_BULK_ITEMS + " operations");
+                }
+
+                List<Long> ids = operations.stream().map(WardrobeBatchOperation::id).filter(Objects::nonNull)
+                                .distinct().toList();
+                Map<Long, WardrobeItem> items = new HashMap<>();
+                for (WardrobeItem item : wardrobeItemRepository.findAllByIdInAndUserId(ids, userId)) {
+                        items.put(item.getId(), item);
+                }
+                List<Long> deleteIds = operations.stream()
+                                .filter(operation -> "delete".equalsIgnoreCase(operation.op()))
+                                .map(WardrobeBatchOperation::id).filter(items::containsKey).distinct().toList();
+                Set<Long> inUse = deleteIds.isEmpty() ? Set.of()
+                                : new HashSet<>(wardrobeItemRepository.findIdsReferencedByOutfits(deleteIds));
+
+                List<WardrobeBatchResultDto> results = new ArrayList<>(operations.size());
+                for (int i = 0; i < operations.size(); i++) {
+                        WardrobeBatchOperation operation = operations.get(i);
+                        // Other users' items are reported as missing, like single-item requests would
+                        WardrobeItem item = operation.id() != null ? items.get(operation.id()) : null;
+                        if (item == null) {
+                                results.add(WardrobeBatchResultDto.failure(i, operation.id(), "Item not found"));
+                                continue;
+                        }
+
+                        String op = operation.op() != null ? operation.op().toLowerCase() : "";
+                        switch (op) {
+                                case "patch" -> {
+                                        WardrobeUpdateDto dto = operation.patch();
+                                        if (dto == null) {
+                                                results.add(WardrobeBatchResultDto.failure(i, item.getId(),
+                                                                "patch is required"));
+                                                continue;
+                                        }
+                                        String invalid = validatePatch(dto);
+                                        if (invalid != null) {
+                                                results.add(WardrobeBatchResultDto.failure(i, item.getId(), invalid));
+                                                continue;
+                                        }
+                                        item.patch(dto.name(), dto.brand(), dto.colors(), dto.category(), dto.season(),
+                                                        dto.seasons());
+                                        markChanged(item);
+                                        results.add(WardrobeBatchResultDto.success(i, item.getId(), WardrobeDto.from(item)));
+                                }
+                                case "delete" -> {
+                                        if (inUse.contains(item.getId())) {
+                                                results.add(WardrobeBatchResultDto.failure(i, item.getId(),
+                                                                "Item is part of a saved outfit"));
+                                                continue;
+                                        }
+                                        removeItem(userId, item);
+                                        items.remove(item.getId());
+                                        results.add(WardrobeBatchResultDto.success(i, item.getId(), null));
+                                }
+                                default -> results.add(WardrobeBatchResultDto.failure(i, item.getId(),
+                                                "op must be patch or delete"));
+                        }
+                }
+                return results;
+        }
+
+        /**
+         * @return why the patch would not fit its columns, or null if it does
+         */
+        private String validatePatch(WardrobeUpdateDto dto) {
+                return validateText(dto.name(), dto.brand(), dto.colors(), dto.seasons());
+        }
+
+        /**
+         * @return why the text fields would not fit their columns, or null if they do
+         */
+        private static String validateText(String name, String brand, List<String> colors, List<String> seasons) {
+                if (tooLong(name) || tooLong(brand)) {
+                        return "name and brand must be at most " + MAX_TEXT_LENGTH + " characters";
+                }
+                if (colors != null && colors.stream().anyMatch(c -> c == null || tooLong(c))) {
+                        return "colors must be non-null and at most " + MAX_TEXT_LENGTH + " characters";
+                }
+                if (seasons != null && seasons.stream().anyMatch(s -> s == null || tooLong(s))) {
+                        return "seasons must be non-null and at most " + MAX_TEXT_LENGTH + " characters";
+                }
+                return null;
+        }
+
+        private static boolean tooLong(String value) {
+                return value != null && value.length() > MAX_TEXT_LENGTH;
+        }
+
+        /**
+         * Stamps the item with the user's change version for delta sync and notifies the in-memory views.
+         */
+        private void markChanged(WardrobeItem item) {
+                item.stampSyncVersion(syncService.nextVersion(item.getUser().getId()));
+                resourceVersions.bump(item.getUser().getId());
+                eventPublisher.publishEvent(WardrobeItemChangedEvent.saved(item));
+        }
+
+        private void removeItem(Long userId, WardrobeItem item) {
                 wardrobeItemRepository.delete(item);
+                eventPublisher.publishEvent(WardrobeItemChangedEvent.deleted(userId, item.getId()));
+                syncService.recordWardrobeDeletion(userId, item.getId());
+                resourceVersions.bump(item.getUser().getId());
+                if (item.getImageKey() != null) {
+                        imageStore.release(item.getImageKey());
+                }
+        }
+
+        @Transactional(readOnly = true)
+        public List<WardrobeDto> getMyWardrobe(Long userId, Category category, Season season) {
+                return wardrobeReader.toDtos(
+                                wardrobeItemRepository.findRowsByUserIdAndCategoryAndSeason(userId, category,
+                                                season));
+        }
+
+        /**
+         * Keyset page of the wardrobe, newest first. Each page costs the same index range
+         * scan regardless of depth, unlike OFFSET paging.
+         */
+        @Transactional(readOnly = true)
+        public WardrobePageDto getMyWardrobePage(Long userId, Category category, Season season, String cursor,
+                        Integer size) {
+                int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+                if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                        throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+                }
+
+                // Fetch one extra row to learn whether another page exists
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                WardrobeCursor position = cursor == null || cursor.isEmpty() ? null : WardrobeCursor.decode(cursor);
+                List<WardrobeRow> rows = findPage(userId, category, season, position, limit);
+
+                boolean hasNext = rows.size() > pageSize;
+                List<WardrobeRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+                String nextCursor = null;
+                if (hasNext) {
+                        WardrobeRow last = page.get(page.size() - 1);
+                        nextCursor = new WardrobeCursor(last.createdAt(), last.id()).encode();
+                }
+
+                return new WardrobePageDto(wardrobeReader.toDtos(page), nextCursor);
         }
 
+        /**
+         * Picks the query for the filter combination, so each one can range-scan its own index.
+         */
+        private List<WardrobeRow> findPage(Long userId, Category category, Season season, WardrobeCursor position,
+                        PageRequest limit) {
+                if (category != null && season != null) {
+                        return position == null
+                                        ? wardrobeItemRepository.findFirstPageByCategoryAndSeason(userId, category,
+                                                        season, limit)
+                                        : wardrobeItemRepository.findPageAfterByCategoryAndSeason(userId, category,
+                                                        season, position.createdAt(), position.id(), limit);
+                }
+                if (category != null) {
+                        return position == null
+                                        ? wardrobeItemRepository.findFirstPageByCategory(userId, category, limit)
+                                        : wardrobeItemRepository.findPageAfterByCategory(userId, category,
+                                                        position.createdAt(), position.id(), limit);
+                }
+                if (season != null) {
+                        return position == null
+                                        ? wardrobeItemRepository.findFirstPageBySeason(userId, season, limit)
+                                        : wardrobeItemRepository.findPageAfterBySeason(userId, season,
+                                                        position.createdAt(), position.id(), limit);
+                }
+                return position == null
+                                ? wardrobeItemRepository.findFirstPage(userId, limit)
+                                : wardrobeItemRepository.findPageAfter(userId, position.createdAt(), position.id(),
+                                                limit);
+        }
+
+        /**
+         * Free-text search over name, brand and colors, served from the in-memory index;
+         * only the matching rows are read from the database.
+         */
         @Transactional(readOnly = true)
-        public List<WardrobeDto> getMyWardrobe(String email, Category category, Season season) {
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        public List<WardrobeDto> search(Long userId, String query, Category category, Season season, Integer size) {
+                int limit = size != null ? size : DEFAULT_SEARCH_SIZE;
+                if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                        throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+                }
 
-                return wardrobeItemRepository.findByUserIdAndCategoryAndSeason(user.getId(), category, season).stream()
-                                .map(WardrobeDto::from)
-                                .collect(Collectors.toList());
+                List<Long> ids = wardrobeSearchIndex.search(userId, query, category, season, limit);
+                Map<Long, WardrobeDto> items = wardrobeReader.findByIds(ids);
+                return ids.stream().map(items::get).filter(Objects::nonNull).toList();
         }
 
+        /**
+         * Counts come from the in-memory counters; only the least-used rows are read.
+         */
         @Transactional(readOnly = true)
-        public List<WardrobeDto> getRecentItems(String email) {
-                User user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        public WardrobeStatsDto getStats(Long userId) {
+                WardrobeStats.Summary summary = wardrobeStats.summary(userId, LEAST_USED_SIZE);
+                Map<Long, WardrobeDto> items = wardrobeReader.findByIds(
+                                summary.leastUsed().stream().map(WardrobeStats.ItemUses::itemId).toList());
+                List<WardrobeStatsDto.ItemUsage> leastUsed = summary.leastUsed().stream()
+                                .filter(usage -> items.containsKey(usage.itemId()))
+                                .map(usage -> new WardrobeStatsDto.ItemUsage(items.get(usage.itemId()), usage.uses()))
+                                .toList();
+                return new WardrobeStatsDto(summary.total(), summary.categories(), summary.seasons(),
+                                summary.colors(), summary.brands(), leastUsed);
+        }
 
-                return wardrobeItemRepository.findTop5ByUserIdOrderByCreatedAtDesc(user.getId()).stream()
-                                .map(WardrobeDto::from)
-                                .collect(Collectors.toList());
+        @Transactional(readOnly = true)
+        public List<WardrobeDto> getRecentItems(Long userId) {
+                return wardrobeReader.toDtos(
+                                wardrobeItemRepository.findRecentRows(userId, PageRequest.of(0, 5)));
         }
 
-        private String saveImage(MultipartFile image) throws IOException {
-                String filename = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
-                String uploadDir = "uploads/";
-                File directory = new File(uploadDir);
-                if (!directory.exists()) {
-                        directory.mkdir();
+        private StoredUpload storeAndHash(MultipartFile image) throws IOException {
+                ImageStore.Stored stored = imageStore.store(image);
+                return new StoredUpload(stored, imageHasher.hash(imageStore.resolve(stored.key())));
+        }
+
+        private WardrobeUploadResult saveUpload(User user, StoredUpload upload, WardrobeBulkItemRequest request) {
+                Long duplicateOf = findCommittedDuplicate(user.getId(), upload.hash());
+                imageStore.retain(upload.stored());
+                WardrobeItem savedItem = wardrobeItemRepository.save(newItem(user, upload,
+                                ServletUriComponentsBuilder.fromCurrentContextPath().toUriString(), request));
+                publishImageStored(savedItem);
+                eventPublisher.publishEvent(WardrobeItemChangedEvent.saved(savedItem));
+                return new WardrobeUploadResult(WardrobeDto.from(savedItem), duplicateOf);
+        }
+
+        /**
+         * Near-duplicate among the user's committed items. Called before the new item is persisted.
+         */
+        private Long findCommittedDuplicate(Long userId, Long hash) {
+                return hash == null ? null : duplicateIndex.findNearDuplicate(userId, hash).orElse(null);
+        }
+
+        /**
+         * @return position of the first near-duplicate among items created earlier in the same request, or -1
+         */
+        private int findEarlierDuplicate(Long hash, List<WardrobeItem> earlier) {
+                if (hash == null) {
+                        return -1;
+                }
+                for (int k = 0; k < earlier.size(); k++) {
+                        Long earlierHash = earlier.get(k).getImageHash();
+                        if (earlierHash != null && duplicateIndex.isNearDuplicate(earlierHash, hash)) {
+                                return k;
+                        }
                 }
-                String filePath = uploadDir + filename;
-                image.transferTo(new File(new File("").getAbsolutePath() + "/" + filePath));
+                return -1;
+        }
 
-                return ServletUriComponentsBuilder.fromCurrentContextPath()
+        private WardrobeItem newItem(User user, StoredUpload upload, String contextUrl,
+                        WardrobeBulkItemRequest request) {
+                ImageStore.Stored image = upload.stored();
+                WardrobeItem item = WardrobeItem.builder()
+                                .user(user)
+                                .category(parseCategory(request.category()))
+                                .season(parseSeason(request.season()))
+                                .imageUrl(imageUrl(contextUrl, image.key()))
+                                .imageKey(image.key())
+                                .imageHash(upload.hash())
+                                .name(request.name())
+                                .brand(request.brand())
+                                .colors(request.colors())
+                                .userSeasons(request.seasons())
+                                .build();
+                item.stampSyncVersion(syncService.nextVersion(user.getId()));
+                resourceVersions.bump(user.getId());
+                return item;
+        }
+
+        /**
+         * Variant generation listens for this after commit, so it never delays the upload response.
+         */
+        private void publishImageStored(WardrobeItem item) {
+                eventPublisher.publishEvent(new WardrobeImageStoredEvent(item.getId(), item.getUser().getId(),
+                                imageStore.resolve(item.getImageKey()), item.getImageUrl(),
+                                item.getColors() != null && !item.getColors().isEmpty(), item.getImageHash()));
+        }
+
+        private String imageUrl(String contextUrl, String filename) {
+                return UriComponentsBuilder.fromHttpUrl(contextUrl)
                                 .path("/images/")
                                 .path(filename)
                                 .toUriString();
         }
+
+        private Category parseCategory(String category) {
+                if (category == null || category.isEmpty()) {
+                        throw new IllegalArgumentException("Category is required");
+                }
+                return Category.valueOf(category.toUpperCase());
+        }
+
+        private Season parseSeason(String season) {
+                return (season != null && !season.isEmpty())
+                                ? Season.valueOf(season.toUpperCase())
+                                : Season.ALL;
+        }
 }
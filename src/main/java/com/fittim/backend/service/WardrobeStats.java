@@ -0,0 +1,239 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.event.OutfitSelectedEvent;
+import com.fittim.backend.event.WardrobeItemChangedEvent;
+import com.fittim.backend.repository.FitHistoryRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user wardrobe counters (category, season, color, brand) and item usage from selected
+ * outfits, so the stats endpoint never scans wardrobe_item or fit_history.
+ * Counters are loaded on first read and adjusted from WardrobeItemChangedEvent and
+ * OutfitSelectedEvent after commit; each item's last snapshot is kept so an update can
+ * subtract what it previously added. A periodic pass rebuilds them to repair drift.
+ */
+@Slf4j
+@Component
+public class WardrobeStats {
+
+    private final WardrobeItemRepository wardrobeItemRepository;
+    private final FitHistoryRepository fitHistoryRepository;
+    private final WardrobeReader wardrobeReader;
+    private final Map<Long, UserStats> stats = new ConcurrentHashMap<>();
+
+    public WardrobeStats(WardrobeItemRepository wardrobeItemRepository, FitHistoryRepository fitHistoryRepository,
+            WardrobeReader wardrobeReader) {
+        this.wardrobeItemRepository = wardrobeItemRepository;
+        this.fitHistoryRepository = fitHistoryRepository;
+        this.wardrobeReader = wardrobeReader;
+    }
+
+    public Summary summary(Long userId, int leastUsed) {
+        UserStats userStats = stats.computeIfAbsent(userId, this::load);
+        userStats.read = true;
+        return userStats.summary(leastUsed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(WardrobeItemChangedEvent event) {
+        // Users not loaded yet read the committed state on first request
+        stats.computeIfPresent(event.userId(), (userId, userStats) -> {
+            if (event.deleted()) {
+                userStats.remove(event.itemId());
+            } else {
+                userStats.put(event.itemId(), event.category(), event.season(), event.brand(), event.colors());
+            }
+            return userStats;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutfitSelected(OutfitSelectedEvent event) {
+        stats.computeIfPresent(event.userId(), (userId, userStats) -> {
+            event.selectedItemIds().forEach(itemId -> userStats.use(itemId, 1));
+            event.deselectedItemIds().forEach(itemId -> userStats.use(itemId, -1));
+            return userStats;
+        });
+    }
+
+    /**
+     * Rebuilds the counters of users read since the last pass and drops the rest,
+     * which also bounds memory to recently active users.
+     */
+    @Scheduled(fixedDelayString = "${wardrobe.stats.reconcile-interval:1h}")
+    public void reconcile() {
+        int repaired = 0;
+        for (Long userId : stats.keySet()) {
+            UserStats current = stats.get(userId);
+            if (current == null) {
+                continue;
+            }
+            if (!current.read) {
+                stats.remove(userId, current);
+                continue;
+            }
+            // Rebuilt inside compute so no event for this user interleaves with the swap
+            UserStats[] previous = new UserStats[1];
+            UserStats rebuilt = stats.computeIfPresent(userId, (id, existing) -> {
+                previous[0] = existing;
+                return load(id);
+            });
+            if (rebuilt != null && !rebuilt.summary(Integer.MAX_VALUE).equals(previous[0].summary(Integer.MAX_VALUE))) {
+                repaired++;
+                log.warn("Repaired drifted wardrobe stats for user {}", userId);
+            }
+        }
+        if (repaired > 0) {
+            log.info("Wardrobe stats reconciliation repaired {} users", repaired);
+        }
+    }
+
+    private UserStats load(Long userId) {
+        UserStats userStats = new UserStats();
+        for (WardrobeDto item : wardrobeReader.toDtos(
+                wardrobeItemRepository.findRowsByUserIdAndCategoryAndSeason(userId, null, null))) {
+            userStats.put(item.id(), item.category(), item.season(), item.brand(), item.colors());
+        }
+        for (Object[] row : fitHistoryRepository.countSelectedOutfitsByUserId(userId)) {
+            int uses = ((Long) row[3]).intValue();
+            for (int i = 0; i < 3; i++) {
+                if (row[i] != null) {
+                    userStats.use((Long) row[i], uses);
+                }
+            }
+        }
+        return userStats;
+    }
+
+    /**
+     * @param leastUsed items with the fewest uses, oldest first among ties
+     */
+    public record Summary(int total, Map<Category, Integer> categories, Map<Season, Integer> seasons,
+            Map<String, Integer> colors, Map<String, Integer> brands, List<ItemUses> leastUsed) {
+    }
+
+    public record ItemUses(Long itemId, long uses) {
+    }
+
+    static final class UserStats {
+
+        private static final Comparator<Item> BY_USES = Comparator.comparingLong(Item::uses)
+                .thenComparing(Item::id);
+
+        private final Map<Long, Item> items = new HashMap<>();
+        private final Map<Category, Integer> categories = new EnumMap<>(Category.class);
+        private final Map<Season, Integer> seasons = new EnumMap<>(Season.class);
+        private final Map<String, Integer> colors = new HashMap<>();
+        private final Map<String, Integer> brands = new HashMap<>();
+        // Kept ordered so least-used reads walk only the head
+        private final TreeSet<Item> byUses = new TreeSet<>(BY_USES);
+        private volatile boolean read;
+
+        synchronized void put(Long itemId, Category category, Season season, String brand, List<String> colors) {
+            Item previous = items.get(itemId);
+            if (previous != null) {
+                unindex(previous);
+            }
+            String normalizedBrand = brand == null || brand.isBlank() ? null : brand.trim();
+            index(new Item(itemId, category, season, normalizedBrand, colors == null ? List.of() : List.copyOf(colors),
+                    previous != null ? previous.uses() : 0));
+        }
+
+        synchronized void remove(Long itemId) {
+            Item previous = items.get(itemId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+
+        synchronized void use(Long itemId, long delta) {
+            Item item = items.get(itemId);
+            if (item == null) {
+                return;
+            }
+            byUses.remove(item);
+            Item updated = item.withUses(Math.max(0, item.uses() + delta));
+            items.put(itemId, updated);
+            byUses.add(updated);
+        }
+
+        synchronized Summary summary(int leastUsed) {
+            List<ItemUses> least = new ArrayList<>(Math.min(leastUsed, items.size()));
+            for (Item item : byUses) {
+                if (least.size() == leastUsed) {
+                    break;
+                }
+                least.add(new ItemUses(item.id(), item.uses()));
+            }
+            return new Summary(items.size(), new EnumMap<>(categories), new EnumMap<>(seasons),
+                    mostFrequentFirst(colors), mostFrequentFirst(brands), least);
+        }
+
+        private void index(Item item) {
+            items.put(item.id(), item);
+            byUses.add(item);
+            if (item.category() != null) {
+                categories.merge(item.category(), 1, Integer::sum);
+            }
+            if (item.season() != null) {
+                seasons.merge(item.season(), 1, Integer::sum);
+            }
+            if (item.brand() != null) {
+                brands.merge(item.brand(), 1, Integer::sum);
+            }
+            item.colors().forEach(color -> colors.merge(color, 1, Integer::sum));
+        }
+
+        private void unindex(Item item) {
+            items.remove(item.id());
+            byUses.remove(item);
+            if (item.category() != null) {
+                decrement(categories, item.category());
+            }
+            if (item.season() != null) {
+                decrement(seasons, item.season());
+            }
+            if (item.brand() != null) {
+                decrement(brands, item.brand());
+            }
+            item.colors().forEach(color -> decrement(colors, color));
+        }
+
+        private static <K> void decrement(Map<K, Integer> counts, K key) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+
+        private static Map<String, Integer> mostFrequentFirst(Map<String, Integer> counts) {
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+    }
+
+    private record Item(Long id, Category category, Season season, String brand, List<String> colors, long uses) {
+
+        Item withUses(long uses) {
+            return new Item(id, category, season, brand, colors, uses);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.fittim.backend.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * AWS Signature Version 4 for S3-compatible object stores (header auth and presigned URLs).
+ * Payloads are sent as UNSIGNED-PAYLOAD unless a hash is given, so bodies can be streamed
+ * without hashing them first. URIs must already be percent-encoded; S3 does not re-encode paths.
+ */
+public class AwsSigV4Signer {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+    private final String service;
+
+    public AwsSigV4Signer(String accessKey, String secretKey, String region, String service) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+        this.service = service;
+    }
+
+    /**
+     * @param headers     extra headers to sign, e.g. content-type; host is added from the URI
+     * @param payloadHash hex SHA-256 of the body, or {@link #UNSIGNED_PAYLOAD}
+     * @return headers to send: the given ones plus x-amz-date, x-amz-content-sha256 and Authorization
+     */
+    public Map<String, String> sign(String method, URI uri, Map<String, String> headers, String payloadHash,
+            Instant now) {
+        String timestamp = TIMESTAMP.format(now);
+        TreeMap<String, String> signed = new TreeMap<>();
+        headers.forEach((name, value) -> signed.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        signed.put("host", host(uri));
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", timestamp);
+
+        String signedHeaders = String.join(";", signed.keySet());
+        String signature = signature(method, uri, canonicalQuery(uri.getRawQuery(), Map.of()), signed,
+                signedHeaders, payloadHash, timestamp);
+
+        Map<String, String> result = new LinkedHashMap<>(headers);
+        result.put("x-amz-date", timestamp);
+        result.put("x-amz-content-sha256", payloadHash);
+        result.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(timestamp)
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+        return result;
+    }
+
+    /**
+     * Query-string signed URL that lets a client perform the request without credentials until it expires.
+     */
+    public URI presign(String method, URI uri, Duration expires, Instant now) {
+        String timestamp = TIMESTAMP.format(now);
+        Map<String, String> auth = new LinkedHashMap<>();
+        auth.put("X-Amz-Algorithm", ALGORITHM);
+        auth.put("X-Amz-Credential", accessKey + "/" + scope(timestamp));
+        auth.put("X-Amz-Date", timestamp);
+        auth.put("X-Amz-Expires", Long.toString(expires.toSeconds()));
+        auth.put("X-Amz-SignedHeaders", "host");
+
+        String query = canonicalQuery(uri.getRawQuery(), auth);
+        TreeMap<String, String> signed = new TreeMap<>(Map.of("host", host(uri)));
+        String signature = signature(method, uri, query, signed, "host", UNSIGNED_PAYLOAD, timestamp);
+
+        String base = uri.toString();
+        int queryStart = base.indexOf('?');
+        return URI.create((queryStart >= 0 ? base.substring(0, queryStart) : base) + "?" + query
+                + "&X-Amz-Signature=" + signature);
+    }
+
+    public static String sha256Hex(byte[] data) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * RFC 3986 encoding as SigV4 requires: unreserved characters stay, everything else is %XX.
+     */
+    public static String encode(String value) {
+        StringBuilder encoded = new StringBuilder(value.length());
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(HEX.withUpperCase().toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private String signature(String method, URI uri, String canonicalQuery, TreeMap<String, String> headers,
+            String signedHeaders, String payloadHash, String timestamp) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        headers.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value).append('\n'));
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String canonicalRequest = method + "\n" + path + "\n" + canonicalQuery + "\n" + canonicalHeaders + "\n"
+                + signedHeaders + "\n" + payloadHash;
+
+        String stringToSign = ALGORITHM + "\n" + timestamp + "\n" + scope(timestamp) + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), timestamp.substring(0, 8));
+        key = hmac(key, region);
+        key = hmac(key, service);
+        key = hmac(key, "aws4_request");
+        return HEX.formatHex(hmac(key, stringToSign));
+    }
+
+    private String scope(String timestamp) {
+        return timestamp.substring(0, 8) + "/" + region + "/" + service + "/aws4_request";
+    }
+
+    /**
+     * Existing query parameters (already encoded, e.g. {@code uploads} or {@code partNumber=1})
+     * plus the extra ones, sorted by name as SigV4 requires.
+     */
+    private static String canonicalQuery(String rawQuery, Map<String, String> extra) {
+        List<String[]> params = new ArrayList<>();
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (String param : rawQuery.split("&")) {
+                int eq = param.indexOf('=');
+                params.add(eq >= 0
+                        ? new String[] { param.substring(0, eq), param.substring(eq + 1) }
+                        : new String[] { param, "" });
+            }
+        }
+        extra.forEach((name, value) -> params.add(new String[] { encode(name), encode(value) }));
+        params.sort((a, b) -> a[0].equals(b[0]) ? a[1].compareTo(b[1]) : a[0].compareTo(b[0]));
+
+        StringBuilder query = new StringBuilder();
+        for (String[] param : params) {
+            if (!query.isEmpty()) {
+                query.append('&');
+            }
+            query.append(param[0]).append('=').append(param[1]);
+        }
+        return query.toString();
+    }
+
+    private static String host(URI uri) {
+        boolean defaultPort = uri.getPort() == -1
+                || ("https".equals(uri.getScheme()) && uri.getPort() == 443)
+                || ("http".equals(uri.getScheme()) && uri.getPort() == 80);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.fittim.backend.config;
+
+import com.fittim.backend.entity.User;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.service.CustomUserDetailsService;
+import com.fittim.backend.service.RevokedSessions;
+import io.jsonwebtoken.Claims;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements per authenticated request: principal loaded from the database vs. built from the
+ * token's claims. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ JpaConfig.class, JwtTokenProvider.class, CustomUserDetailsService.class, RevokedSessions.class })
+class JwtAuthenticationBenchmarkTest {
+
+    private static final int ROUNDS = 1_000;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Claims claims;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("bench@example.com")
+                .password("x")
+                .nickname("bench")
+                .role("ROLE_USER")
+                .preferredStyles(new ArrayList<>(List.of("casual", "minimal")))
+                .preferredMalls(new ArrayList<>(List.of("musinsa")))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        claims = jwtTokenProvider.parseClaims(jwtTokenProvider.createToken(user.getId(), user.getEmail(),
+                user.getRole(), "session-1"));
+    }
+
+    @Test
+    void loadedVsStatelessPrincipal() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        Result loaded = measure(statistics, false);
+        Result stateless = measure(statistics, true);
+
+        System.out.printf("[authentication] loaded: %d statements, %.1f us/op | stateless: %d statements, %.1f us/op%n",
+                loaded.statements(), loaded.microsPerOp(), stateless.statements(), stateless.microsPerOp());
+
+        assertThat(loaded.principal()).isEqualTo(stateless.principal());
+        assertThat(stateless.principal().id()).isEqualTo(user.getId());
+        assertThat(stateless.statements()).isZero();
+        assertThat(loaded.statements()).isPositive();
+    }
+
+    private Result measure(Statistics statistics, boolean statelessPrincipal) {
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessPrincipal", statelessPrincipal);
+        jwtTokenProvider.getAuthentication(claims); // warm-up
+        entityManager.clear();
+
+        statistics.clear();
+        Authentication authentication = jwtTokenProvider.getAuthentication(claims);
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            jwtTokenProvider.getAuthentication(claims);
+            entityManager.clear();
+        }
+        double microsPerOp = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+        return new Result((JwtPrincipal) authentication.getPrincipal(), statements, microsPerOp);
+    }
+
+    private record Result(JwtPrincipal principal, long statements, double microsPerOp) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.fittim.backend.config;
+
+import com.fittim.backend.service.RevokedSessions;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Filter hot path per request: the former validate-then-parse with a parser built per call,
+ * one parse with a shared parser, and a verified-token cache hit. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+class JwtFilterBenchmarkTest {
+
+    private static final String SECRET = "defaultSecretKeyNeedToChangeThisValueToSomethingSecureAndLongEnough";
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 100_000;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterHotPath() throws Exception {
+        JwtTokenProvider uncached = provider(0);
+        JwtTokenProvider cached = provider(10_000);
+        String token = cached.createToken(7L, "bench@example.com", "ROLE_USER", "session-1");
+
+        double doubleParse = measure(new DoubleParseFilter(uncached, Keys.hmacShaKeyFor(SECRET.getBytes())), token);
+        double singleParse = measure(new JwtAuthenticationFilter(uncached), token);
+        double cacheHit = measure(new JwtAuthenticationFilter(cached), token);
+
+        System.out.printf("[jwt filter] double parse: %.2f us/op | single parse: %.2f us/op | cache hit: %.2f us/op%n",
+                doubleParse, singleParse, cacheHit);
+
+        assertThat(singleParse).isLessThan(doubleParse);
+        assertThat(cacheHit).isLessThan(singleParse);
+    }
+
+    private double measure(Filter filter, String token) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            authenticate(filter, token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            authenticate(filter, token);
+        }
+        double microsPerOp = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isEqualTo(new JwtPrincipal(7L, "bench@example.com", "ROLE_USER"));
+        return microsPerOp;
+    }
+
+    private static void authenticate(Filter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/wardrobe");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private static JwtTokenProvider provider(int verifiedCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider(mock(UserDetailsService.class), mock(RevokedSessions.class));
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "statelessPrincipal", true);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+        provider.init();
+        return provider;
+    }
+
+    /**
+     * The filter as it was: a validation parse, then a second parse for the claims, each with
+     * a freshly built parser.
+     */
+    private static final class DoubleParseFilter extends OncePerRequestFilter {
+
+        private final JwtTokenProvider jwtTokenProvider;
+        private final Key key;
+
+        DoubleParseFilter(JwtTokenProvider jwtTokenProvider, Key key) {
+            this.jwtTokenProvider = jwtTokenProvider;
+            this.key = key;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain filterChain) throws ServletException, IOException {
+            String token = jwtTokenProvider.resolveToken(request);
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            SecurityContextHolder.getContext().setAuthentication(jwtTokenProvider.getAuthentication(claims));
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.fittim.backend.config;
+
+import com.fittim.backend.service.RevokedSessions;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class JwtTokenProviderTest {
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final RevokedSessions revokedSessions = mock(RevokedSessions.class);
+
+    @Test
+    @DisplayName("The principal comes from the token's claims without loading the user")
+    void getAuthentication_BuildsPrincipalFromClaims() {
+        JwtTokenProvider provider = provider(100);
+        Claims claims = provider.parseClaims(provider.createToken(7L, "test@example.com", "ROLE_USER", "session-1"));
+
+        Authentication authentication = provider.getAuthentication(claims);
+
+        assertThat(authentication.getPrincipal()).isEqualTo(new JwtPrincipal(7L, "test@example.com", "ROLE_USER"));
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("A repeated token is answered from the verified-token cache")
+    void parseClaims_CachesVerifiedTokens() {
+        JwtTokenProvider provider = provider(100);
+        String token = provider.createToken(7L, "test@example.com", "ROLE_USER", "session-1");
+
+        Claims first = provider.parseClaims(token);
+
+        assertThat(provider.parseClaims(token)).isSameAs(first);
+        assertThat(provider(0).parseClaims(token)).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void parseClaims_RejectsTamperedAndForeignTokens() {
+        JwtTokenProvider provider = provider(100);
+        String token = provider.createToken(7L, "test@example.com", "ROLE_USER", "session-1");
+        String[] parts = token.split("\\.");
+        String forged = provider.createToken(1L, "admin@example.com", "ROLE_ADMIN", "session-1").split("\\.")[1];
+
+        assertThat(provider.parseClaims(parts[0] + "." + forged + "." + parts[2])).isNull();
+        assertThat(provider.parseClaims("not-a-token")).isNull();
+
+        JwtTokenProvider other = provider(100);
+        ReflectionTestUtils.setField(other, "secretKey", "anotherSecretKeyThatIsAlsoLongEnoughForHmacSha256Signing");
+        other.init();
+        assertThat(other.parseClaims(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("Access tokens of a revoked session are rejected, even from the cache")
+    void parseClaims_RejectsRevokedSessions() {
+        JwtTokenProvider provider = provider(100);
+        String token = provider.createToken(7L, "test@example.com", "ROLE_USER", "session-1");
+        assertThat(provider.parseClaims(token)).isNotNull();
+
+        given(revokedSessions.isRevoked("session-1")).willReturn(true);
+
+        assertThat(provider.parseClaims(token)).isNull();
+    }
+
+    @Test
+    void verifiedTokenCache_StaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        JwtTokenProvider provider = provider(0);
+        for (long id = 1; id <= 5; id++) {
+            String token = provider.createToken(id, "user" + id + "@example.com", "ROLE_USER", "session-1");
+            cache.put(token, provider.parseClaims(token));
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private JwtTokenProvider provider(int verifiedCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider(userDetailsService, revokedSessions);
+        ReflectionTestUtils.setField(provider, "secretKey",
+                "defaultSecretKeyNeedToChangeThisValueToSomethingSecureAndLongEnough");
+        ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "statelessPrincipal", true);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+        provider.init();
+        return provider;
+    }
+}
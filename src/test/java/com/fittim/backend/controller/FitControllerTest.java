@@ -1,27 +1,40 @@
 package com.fittim.backend.controller;
 
+import com.fittim.backend.config.JwtPrincipal;
 import com.fittim.backend.config.JwtTokenProvider;
 import com.fittim.backend.dto.FitHistoryDto;
+import com.fittim.backend.repository.SyncCounterRepository;
 import com.fittim.backend.service.FitService;
+import com.fittim.backend.service.ResourceVersionService;
+import com.fittim.backend.service.SyncService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FitController.class)
+@Import(ResourceVersionService.class)
 class FitControllerTest {
 
+    private static final JwtPrincipal USER = new JwtPrincipal(1L, "test@example.com", "ROLE_USER");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -31,8 +44,13 @@ class FitControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider; // Required for Security Config
 
+    @MockBean
+    private SyncService syncService;
+
+    @MockBean
+    private SyncCounterRepository syncCounterRepository;
+
     @Test
-    @WithMockUser(username = "test@example.com")
     void getFitHistory_ShouldReturnHasReasonField() throws Exception {
         // Given
         FitHistoryDto mockHistory = new FitHistoryDto(
@@ -45,14 +63,34 @@ class FitControllerTest {
                 "THIS_IS_THE_REASON_FROM_BACKEND", // The critical field
                 LocalDateTime.now().toString());
 
-        given(fitService.getFitHistory("test@example.com"))
+        given(fitService.getFitHistory(USER.id()))
                 .willReturn(List.of(mockHistory));
 
         // When & Then
-        mockMvc.perform(get("/api/fits/history"))
+        mockMvc.perform(get("/api/fits/history").with(user(USER)))
                 .andDo(print()) // Print result to console
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].reason").value("THIS_IS_THE_REASON_FROM_BACKEND")); // Verify JSON key is
                                                                                               // 'reason'
     }
+
+    @Test
+    void getFitHistory_ShouldAnswer304UntilHistoryChanges() throws Exception {
+        given(fitService.getFitHistory(USER.id())).willReturn(List.of());
+
+        String etag = mockMvc.perform(get("/api/fits/history").with(user(USER)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/fits/history").with(user(USER)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(fitService, times(1)).getFitHistory(USER.id());
+
+        // A write on any node advances the stored counter
+        given(syncCounterRepository.findVersionByUserId(USER.id())).willReturn(Optional.of(1L));
+        mockMvc.perform(get("/api/fits/history").with(user(USER)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        verify(fitService, times(2)).getFitHistory(USER.id());
+    }
 }
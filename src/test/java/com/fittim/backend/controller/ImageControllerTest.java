@@ -0,0 +1,101 @@
+package com.fittim.backend.controller;
+
+import com.fittim.backend.config.JwtTokenProvider;
+import com.fittim.backend.service.ImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImageController.class)
+class ImageControllerTest {
+
+    private static final String HASH = "a".repeat(64);
+    private static final String KEY = "aa/aa/" + HASH + ".jpg";
+
+    @TempDir
+    Path root;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImageStore imageStore;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider; // Required for Security Config
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = root.resolve(HASH + ".jpg");
+        Files.write(file, "0123456789".getBytes());
+        given(imageStore.lookup(anyString())).willReturn(Optional.empty());
+        given(imageStore.lookup(KEY)).willReturn(Optional.of(file));
+    }
+
+    @Test
+    void serve_ContentAddressedImageIsImmutable() throws Exception {
+        mockMvc.perform(get("/images/" + KEY))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void serve_MatchingIfNoneMatchReturns304() throws Exception {
+        mockMvc.perform(get("/images/" + KEY).header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void serve_SingleRangeReturns206() throws Exception {
+        mockMvc.perform(get("/images/" + KEY).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/images/" + KEY).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+
+        mockMvc.perform(get("/images/" + KEY).header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void serve_UnknownImageReturns404() throws Exception {
+        mockMvc.perform(get("/images/aa/aa/missing.jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void serve_RedirectsWhenStorageServesDirectly() throws Exception {
+        URI presigned = URI.create("https://bucket.example.com/" + KEY + "?X-Amz-Signature=abc");
+        given(imageStore.redirectUrl(KEY)).willReturn(Optional.of(presigned));
+
+        mockMvc.perform(get("/images/" + KEY))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION, presigned.toString()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=60"));
+    }
+}
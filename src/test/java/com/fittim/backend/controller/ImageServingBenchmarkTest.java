@@ -0,0 +1,104 @@
+package com.fittim.backend.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ImageController vs. the previous ResourceHandler for the same 4MB file over a real Tomcat,
+ * both cold downloads and client revalidation. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "image.storage.root=build/benchmark-images")
+class ImageServingBenchmarkTest {
+
+    private static final String KEY = "ab/cd/" + "abcd".repeat(16) + ".jpg";
+    private static final int SIZE = 4 * 1024 * 1024;
+    private static final int ROUNDS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * The handler WebConfig used to register, mounted on the already public /uploads/** path.
+     */
+    @TestConfiguration
+    static class LegacyHandlerConfig implements WebMvcConfigurer {
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/uploads/**")
+                    .addResourceLocations("file:" + Paths.get("build/benchmark-images").toAbsolutePath() + "/");
+        }
+    }
+
+    @BeforeAll
+    static void writeImage() throws Exception {
+        Path file = Paths.get("build/benchmark-images").toAbsolutePath().resolve(KEY);
+        Files.createDirectories(file.getParent());
+        byte[] bytes = new byte[SIZE];
+        new Random(42).nextBytes(bytes);
+        Files.write(file, bytes);
+    }
+
+    @Test
+    void compareThroughputAndRevalidation() throws Exception {
+        report("legacy handler", "/uploads/" + KEY);
+        report("ImageController", "/images/" + KEY);
+    }
+
+    private void report(String label, String path) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + path);
+        HttpResponse<byte[]> first = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(first.body()).hasSize(SIZE);
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        String lastModified = first.headers().firstValue("Last-Modified").orElse(null);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // A client revalidating its cached copy, as the mobile app does on every screen
+        HttpRequest.Builder revalidate = HttpRequest.newBuilder(uri);
+        if (etag != null) {
+            revalidate.header("If-None-Match", etag);
+        } else if (lastModified != null) {
+            revalidate.header("If-Modified-Since", lastModified);
+        }
+        long revalidateStart = System.nanoTime();
+        long bytes = 0;
+        int status = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            HttpResponse<byte[]> response = client.send(revalidate.build(), HttpResponse.BodyHandlers.ofByteArray());
+            bytes += response.body().length;
+            status = response.statusCode();
+        }
+        double revalidateSeconds = (System.nanoTime() - revalidateStart) / 1e9;
+
+        System.out.printf("%s: %.1f MB/s full download, Cache-Control=%s, revalidation %d (%d bytes, %.2f ms avg)%n",
+                label, ROUNDS * (double) SIZE / seconds / (1024 * 1024),
+                first.headers().firstValue("Cache-Control").orElse("-"),
+                status, bytes, revalidateSeconds * 1000 / ROUNDS);
+    }
+}
@@ -0,0 +1,120 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.WeatherDto.SimpleWeatherDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.WardrobeItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidatePrunerTest {
+
+    private final CandidatePruner pruner = new CandidatePruner(8);
+
+    // One top per season, so the surviving seasons are the band
+    private final List<WardrobeItem> tops = List.of(
+            item(1L, Category.TOP, Season.SPRING),
+            item(2L, Category.TOP, Season.SUMMER),
+            item(3L, Category.TOP, Season.FALL),
+            item(4L, Category.TOP, Season.WINTER));
+
+    @Test
+    @DisplayName("Each temperature band starts at its lower edge")
+    void prune_TemperatureBandEdges() {
+        assertThat(seasonsAt(27)).containsExactlyInAnyOrder(Season.SUMMER);
+        assertThat(seasonsAt(26.9)).containsExactlyInAnyOrder(Season.SUMMER, Season.SPRING);
+        assertThat(seasonsAt(20)).containsExactlyInAnyOrder(Season.SUMMER, Season.SPRING);
+        assertThat(seasonsAt(19.9)).containsExactlyInAnyOrder(Season.SPRING, Season.FALL);
+        assertThat(seasonsAt(12)).containsExactlyInAnyOrder(Season.SPRING, Season.FALL);
+        assertThat(seasonsAt(11.9)).containsExactlyInAnyOrder(Season.FALL, Season.WINTER);
+        assertThat(seasonsAt(5)).containsExactlyInAnyOrder(Season.FALL, Season.WINTER);
+        assertThat(seasonsAt(4.9)).containsExactlyInAnyOrder(Season.WINTER);
+    }
+
+    @Test
+    @DisplayName("Snow adds winter to any band")
+    void prune_SnowAddsWinter() {
+        List<WardrobeItem> pruned = pruner.prune(tops, new CandidatePruner.Conditions(22, "Snow"));
+
+        assertThat(pruned).extracting(WardrobeItem::getSeason)
+                .containsExactlyInAnyOrder(Season.SUMMER, Season.SPRING, Season.WINTER);
+    }
+
+    @Test
+    @DisplayName("Outers are dropped from 20°C up when dry, and kept below it or in rain and snow")
+    void prune_OuterRule() {
+        List<WardrobeItem> items = List.of(item(1L, Category.TOP, Season.ALL), item(2L, Category.OUTER, Season.ALL));
+
+        assertThat(categoriesIn(pruner.prune(items, new CandidatePruner.Conditions(20, "Clear"))))
+                .containsExactly(Category.TOP);
+        assertThat(categoriesIn(pruner.prune(items, new CandidatePruner.Conditions(19.9, "Clear"))))
+                .containsExactly(Category.TOP, Category.OUTER);
+        assertThat(categoriesIn(pruner.prune(items, new CandidatePruner.Conditions(25, "Rain"))))
+                .containsExactly(Category.TOP, Category.OUTER);
+        assertThat(categoriesIn(pruner.prune(items, new CandidatePruner.Conditions(25, "Snow"))))
+                .containsExactly(Category.TOP, Category.OUTER);
+    }
+
+    @Test
+    @DisplayName("A category with nothing in band keeps its off-season items")
+    void prune_NeverEmptiesACategory() {
+        List<WardrobeItem> items = List.of(item(1L, Category.BOTTOM, Season.WINTER));
+
+        assertThat(pruner.prune(items, new CandidatePruner.Conditions(30, "Clear"))).containsExactlyElementsOf(items);
+    }
+
+    @Test
+    @DisplayName("Keeps the best-n per category, exact season first, newest among ties")
+    void prune_KeepsMostRelevantPerCategory() {
+        CandidatePruner keepTwo = new CandidatePruner(2);
+        List<WardrobeItem> items = new ArrayList<>(List.of(
+                item(1L, Category.TOP, Season.ALL),
+                item(2L, Category.TOP, Season.SUMMER),
+                item(3L, Category.TOP, Season.SUMMER),
+                item(4L, Category.TOP, Season.ALL)));
+
+        assertThat(keepTwo.prune(items, new CandidatePruner.Conditions(30, "Clear")))
+                .extracting(WardrobeItem::getId).containsExactly(3L, 2L);
+    }
+
+    @Test
+    @DisplayName("Server weather wins over the client string, which is parsed otherwise")
+    void conditions_Resolve() {
+        assertThat(CandidatePruner.Conditions.resolve("Sunny, 10°C", new SimpleWeatherDto("Rain", "비", 18.0, null)))
+                .isEqualTo(new CandidatePruner.Conditions(18.0, "Rain"));
+        assertThat(CandidatePruner.Conditions.resolve("눈 -3도", null))
+                .isEqualTo(new CandidatePruner.Conditions(-3.0, "Snow"));
+        assertThat(CandidatePruner.Conditions.resolve(null, null))
+                .isEqualTo(new CandidatePruner.Conditions(20.0, "Clear"));
+    }
+
+    private List<Season> seasonsAt(double temperature) {
+        return pruner.prune(tops, new CandidatePruner.Conditions(temperature, "Clear")).stream()
+                .map(WardrobeItem::getSeason)
+                .toList();
+    }
+
+    private static List<Category> categoriesIn(List<WardrobeItem> items) {
+        return items.stream().map(WardrobeItem::getCategory).toList();
+    }
+
+    // Ids double as creation order, which breaks relevance ties
+    private static WardrobeItem item(Long id, Category category, Season season) {
+        WardrobeItem item = WardrobeItem.builder()
+                .category(category)
+                .season(season)
+                .userSeasons(new ArrayList<>())
+                .colors(new ArrayList<>())
+                .build();
+        ReflectionTestUtils.setField(item, "id", id);
+        ReflectionTestUtils.setField(item, "createdAt", LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+        return item;
+    }
+}
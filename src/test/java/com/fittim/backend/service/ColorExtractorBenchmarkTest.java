@@ -0,0 +1,55 @@
+package com.fittim.backend.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the extraction kernel (sampling + k-means + naming) on noisy photos of
+ * typical upload size. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+class ColorExtractorBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void extractionKernel() {
+        ColorExtractor colorExtractor = new ColorExtractor();
+        BufferedImage[] images = new BufferedImage[8];
+        Random random = new Random(1);
+        for (int i = 0; i < images.length; i++) {
+            images[i] = noisy(random, 96, 128); // decoded size used by ColorExtractionService
+        }
+
+        int sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += colorExtractor.extract(images[i % images.length]).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += colorExtractor.extract(images[i % images.length]).size();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+        System.out.printf("ColorExtractor.extract: %.1f us/image (%.0f images/s per core)%n", micros, 1e6 / micros);
+        assertThat(sink).isPositive();
+    }
+
+    private static BufferedImage noisy(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int base = random.nextInt(0xffffff);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = (x + y) % 3 == 0 ? random.nextInt(0xffffff) : base ^ (random.nextInt(16) * 0x010101);
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+}
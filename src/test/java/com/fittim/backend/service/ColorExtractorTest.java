@@ -0,0 +1,58 @@
+package com.fittim.backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColorExtractorTest {
+
+    private final ColorExtractor colorExtractor = new ColorExtractor();
+
+    @Test
+    @DisplayName("A solid garment maps to its palette name")
+    void extract_SolidColor() {
+        assertThat(colorExtractor.extract(fill(new Color(0xc0, 0x20, 0x30)))).containsExactly("red");
+        assertThat(colorExtractor.extract(fill(new Color(0x1c, 0x28, 0x48)))).containsExactly("navy");
+    }
+
+    @Test
+    @DisplayName("Colors are ranked by share and the border background is ignored")
+    void extract_RanksByShareIgnoringBorder() {
+        BufferedImage image = fill(Color.WHITE);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(0x20, 0x20, 0x20));
+        g.fillRect(10, 10, 60, 80); // 75% of the central region
+        g.setColor(new Color(0xd8, 0xc0, 0xa0));
+        g.fillRect(70, 10, 20, 80); // beige panel, 25%
+        g.dispose();
+
+        // The white border lies entirely outside the sampled region
+        assertThat(colorExtractor.extract(image)).containsExactly("black", "beige");
+    }
+
+    @Test
+    @DisplayName("Transparent pixels of cut-out images are skipped")
+    void extract_SkipsTransparentPixels() {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(0x2e, 0x7d, 0x32));
+        g.fillRect(30, 30, 40, 40);
+        g.dispose();
+
+        assertThat(colorExtractor.extract(image)).containsExactly("green");
+    }
+
+    private static BufferedImage fill(Color color) {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, 100, 100);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,111 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.event.WardrobeItemChangedEvent;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class DuplicateIndexTest {
+
+    private final WardrobeItemRepository wardrobeItemRepository = mock(WardrobeItemRepository.class);
+
+    @Test
+    @DisplayName("A downscaled copy hashes within the threshold; a different photo does not")
+    void dHash_ToleratesResize() {
+        BufferedImage original = pattern(new Random(1), 400, 600);
+        BufferedImage resized = scale(original, 120, 180);
+        BufferedImage other = pattern(new Random(2), 400, 600);
+
+        long hash = ImageHasher.dHash(original);
+        assertThat(ImageHasher.distance(hash, ImageHasher.dHash(resized))).isLessThanOrEqualTo(6);
+        assertThat(ImageHasher.distance(hash, ImageHasher.dHash(other))).isGreaterThan(6);
+    }
+
+    @Test
+    @DisplayName("Lookups return the closest live item within the threshold; committed deletes drop items")
+    void findNearDuplicate_UsesHammingDistance() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, 0b1111L });
+        rows.add(new Object[] { 2L, 0xFFFF_0000_0000_0000L });
+        given(wardrobeItemRepository.findImageHashesByUserId(7L)).willReturn(rows);
+        DuplicateIndex index = new DuplicateIndex(wardrobeItemRepository, mock(PlatformTransactionManager.class), 3);
+
+        assertThat(index.findNearDuplicate(7L, 0b0111L)).contains(1L); // 1 bit off
+        assertThat(index.findNearDuplicate(7L, 0xFFFF_0000_0000_00F0L)).isEmpty(); // 4 bits off: too far
+        assertThat(index.findNearDuplicate(7L, 0xFFFF_0000_0000_0070L)).contains(2L);
+        assertThat(index.findNearDuplicate(7L, 0x00FF_00FF_00FF_00FFL)).isEmpty();
+
+        index.add(7L, 3L, 0b0111L);
+        assertThat(index.findNearDuplicate(7L, 0b0111L)).contains(3L); // exact match wins
+        index.onItemChanged(WardrobeItemChangedEvent.deleted(7L, 3L));
+        assertThat(index.findNearDuplicate(7L, 0b0111L)).contains(1L);
+        verify(wardrobeItemRepository, times(1)).findImageHashesByUserId(7L);
+    }
+
+    @Test
+    @DisplayName("Search results match a linear scan on a large random closet")
+    void bkTree_MatchesLinearScan() {
+        Random random = new Random(3);
+        DuplicateIndex.BkTree tree = new DuplicateIndex.BkTree();
+        long[] hashes = new long[2_000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+            tree.add(i, hashes[i]);
+        }
+        for (int i = 0; i < hashes.length; i += 3) {
+            tree.remove(i);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            long query = hashes[random.nextInt(hashes.length)] ^ (1L << random.nextInt(64));
+            int best = Integer.MAX_VALUE;
+            for (int i = 0; i < hashes.length; i++) {
+                if (i % 3 != 0) {
+                    best = Math.min(best, ImageHasher.distance(query, hashes[i]));
+                }
+            }
+            Long found = tree.nearest(query, 6).orElse(null);
+            if (best <= 6) {
+                assertThat(found).isNotNull();
+                assertThat(ImageHasher.distance(query, hashes[found.intValue()])).isEqualTo(best);
+            } else {
+                assertThat(found).isNull();
+            }
+        }
+    }
+
+    private static BufferedImage pattern(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        for (int i = 0; i < 40; i++) {
+            g.setColor(new Color(random.nextInt(0xffffff)));
+            g.fillRect(random.nextInt(width), random.nextInt(height), width / 4, height / 4);
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,233 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.FitRequestDto;
+import com.fittim.backend.dto.FitResponseDto;
+import com.fittim.backend.dto.GeminiDto.RecommendationResult;
+import com.fittim.backend.dto.WeatherDto.SimpleWeatherDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.FitHistory;
+import com.fittim.backend.entity.FitLabel;
+import com.fittim.backend.entity.Outfit;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.repository.FitHistoryRepository;
+import com.fittim.backend.repository.FitLabelRepository;
+import com.fittim.backend.repository.OutfitRepository;
+import com.fittim.backend.repository.SyncCounterRepository;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class FitServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final GeminiService geminiService = mock(GeminiService.class);
+    private final FitHistoryRepository fitHistoryRepository = mock(FitHistoryRepository.class);
+    private final WardrobeItemRepository wardrobeItemRepository = mock(WardrobeItemRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WeatherService weatherService = mock(WeatherService.class);
+    private final SyncService syncService = mock(SyncService.class);
+    private final RecentFitCache recentFitCache = mock(RecentFitCache.class);
+    private final OutfitRepository outfitRepository = mock(OutfitRepository.class);
+    private final FitLabelRepository fitLabelRepository = mock(FitLabelRepository.class);
+    private final ExecutorService fitExecutor = Executors.newSingleThreadExecutor();
+    private FitService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FitService(geminiService, fitHistoryRepository, wardrobeItemRepository, userRepository,
+                recentFitCache, weatherService, new CandidatePruner(8), outfitRepository,
+                fitLabelRepository, mock(WardrobeReader.class), mock(ApplicationEventPublisher.class),
+                syncService, new ResourceVersionService(syncService, mock(SyncCounterRepository.class)), fitExecutor);
+
+        User user = User.builder().email("test@example.com").build();
+        ReflectionTestUtils.setField(user, "id", USER_ID);
+        given(userRepository.getReferenceById(USER_ID)).willReturn(user);
+        given(outfitRepository.findLockedByItemKey(anyLong(), anyLong(), anyLong())).willAnswer(invocation -> {
+            long outerKey = invocation.getArgument(2);
+            return Optional.of(Outfit.builder()
+                    .top(item(invocation.getArgument(0), Category.TOP))
+                    .bottom(item(invocation.getArgument(1), Category.BOTTOM))
+                    .outer(outerKey == Outfit.NO_OUTER ? null : item(outerKey, Category.OUTER))
+                    .build());
+        });
+        given(fitLabelRepository.findByValue(anyString())).willReturn(Optional.empty());
+        AtomicLong labelIds = new AtomicLong();
+        given(fitLabelRepository.findLockedByValue(anyString())).willAnswer(invocation -> {
+            FitLabel label = new FitLabel(invocation.getArgument(0));
+            ReflectionTestUtils.setField(label, "id", labelIds.incrementAndGet());
+            return Optional.of(label);
+        });
+        given(fitHistoryRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<FitHistory> histories = invocation.getArgument(0);
+            for (int i = 0; i < histories.size(); i++) {
+                ReflectionTestUtils.setField(histories.get(i), "id", 100L + i);
+            }
+            return histories;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        fitExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Lat/lon without client weather resolves the weather on the server, beside the wardrobe query")
+    void recommend_ResolvesWeatherFromLocation() {
+        WardrobeItem top = item(1L, Category.TOP);
+        WardrobeItem bottom = item(2L, Category.BOTTOM);
+        AtomicReference<Thread> queryThread = new AtomicReference<>();
+        given(wardrobeItemRepository.findAllByUserIdAndSeasonIn(USER_ID, List.of(Season.SUMMER, Season.ALL)))
+                .willAnswer(invocation -> {
+                    queryThread.set(Thread.currentThread());
+                    return List.of(top, bottom);
+                });
+        AtomicReference<Thread> weatherThread = new AtomicReference<>();
+        given(weatherService.getCurrentWeather(37.5, 127.0)).willAnswer(invocation -> {
+            weatherThread.set(Thread.currentThread());
+            return new SimpleWeatherDto("Clear", "맑음", 28.0, null);
+        });
+        given(geminiService.recommend(anyList(), any(), any(), anyString(), anyString(), anyList(), anyInt()))
+                .willReturn(List.of(new RecommendationResult(1L, 2L, null, null, "hot day")));
+
+        FitResponseDto response = service.recommend(USER_ID,
+                new FitRequestDto("summer", "Office", "Calm", null, 37.5, 127.0, 1));
+
+        verify(geminiService).recommend(anyList(), eq("Office"), eq("Calm"), eq("SUMMER"), eq("맑음, 28°C"),
+                anyList(), eq(1));
+        assertThat(response.reason()).isEqualTo("hot day");
+        // The query must share the request's transaction, so it may not move to a worker
+        assertThat(queryThread.get()).isSameAs(Thread.currentThread());
+        assertThat(weatherThread.get()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Client-provided weather skips the server lookup")
+    void recommend_PrefersClientWeather() {
+        given(wardrobeItemRepository.findAllByUserIdAndSeasonIn(anyLong(), anyList()))
+                .willReturn(List.of(item(1L, Category.TOP), item(2L, Category.BOTTOM)));
+        given(geminiService.recommend(anyList(), any(), any(), anyString(), anyString(), anyList(), anyInt()))
+                .willReturn(List.of(new RecommendationResult(1L, 2L, null, null, "rainy")));
+
+        service.recommend(USER_ID, new FitRequestDto("summer", "Office", null, "Rain, 18°C", 37.5, 127.0, 1));
+
+        verify(weatherService, never()).getCurrentWeather(37.5, 127.0);
+        verify(geminiService).recommend(anyList(), eq("Office"), any(), eq("SUMMER"), eq("Rain, 18°C"),
+                anyList(), eq(1));
+    }
+
+    @Test
+    @DisplayName("A label inserted by a rolled-back transaction is not cached")
+    void recommend_CachesLabelIdsOnlyAfterCommit() {
+        given(wardrobeItemRepository.findAllByUserIdAndSeasonIn(anyLong(), anyList()))
+                .willReturn(List.of(item(1L, Category.TOP), item(2L, Category.BOTTOM)));
+        given(geminiService.recommend(anyList(), any(), any(), anyString(), anyString(), anyList(), anyInt()))
+                .willReturn(List.of(new RecommendationResult(1L, 2L, null, null, "office")));
+        FitRequestDto request = new FitRequestDto("summer", "Office", "Calm", "Sunny, 25°C", null, null, 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recommend(USER_ID, request);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.recommend(USER_ID, request);
+        service.recommend(USER_ID, request);
+
+        // Looked up by the rolled-back and the committed call, then served from the cache
+        verify(fitLabelRepository, times(2)).findByValue("Office");
+    }
+
+    @Test
+    @DisplayName("New labels are inserted if absent and the chosen outfit is counted in the database")
+    void recommend_InternsLabelsAndCountsUse() {
+        given(wardrobeItemRepository.findAllByUserIdAndSeasonIn(anyLong(), anyList()))
+                .willReturn(List.of(item(1L, Category.TOP), item(2L, Category.BOTTOM)));
+        given(geminiService.recommend(anyList(), any(), any(), anyString(), anyString(), anyList(), anyInt()))
+                .willReturn(List.of(new RecommendationResult(1L, 2L, null, null, "office")));
+
+        service.recommend(USER_ID, new FitRequestDto("summer", "Office", "Calm", "Sunny, 25°C", null, null, 1));
+
+        verify(fitLabelRepository).insertIfAbsent("Office");
+        verify(fitLabelRepository).insertIfAbsent("Calm");
+        verify(fitLabelRepository, never()).save(any());
+        verify(outfitRepository).markUsed(any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("A place or mood longer than its column is rejected before the wardrobe is read")
+    void recommend_RejectsOverlongLabels() {
+        FitRequestDto request = new FitRequestDto("summer", "x".repeat(101), "Calm", "Sunny, 25°C", null, null, 1);
+
+        assertThatThrownBy(() -> service.recommend(USER_ID, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("place must be at most 100 characters");
+        verify(wardrobeItemRepository, never()).findAllByUserIdAndSeasonIn(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("Fallback ranking puts even the oldest repeat below a fresh pair")
+    void recommend_RanksRepeatsBelowFreshPairs() {
+        given(wardrobeItemRepository.findAllByUserIdAndSeasonIn(anyLong(), anyList()))
+                .willReturn(List.of(item(1L, Category.TOP), item(2L, Category.TOP), item(3L, Category.BOTTOM)));
+        given(geminiService.recommend(anyList(), any(), any(), anyString(), anyString(), anyList(), anyInt()))
+                .willReturn(List.of());
+        // Smallest penalty the default 20-outfit window produces
+        given(recentFitCache.repeatPenalty(USER_ID, 1L, 3L)).willReturn(1.0 / 20);
+
+        for (int i = 0; i < 50; i++) {
+            FitResponseDto response = service.recommend(USER_ID,
+                    new FitRequestDto("summer", "Office", "Calm", "Sunny, 25°C", null, null, 1));
+            assertThat(response.top().id()).isEqualTo(2L);
+        }
+    }
+
+    // CandidatePruner breaks relevance ties by createdAt, so every item needs one
+    private WardrobeItem item(Long id, Category category) {
+        WardrobeItem item = WardrobeItem.builder()
+                .category(category)
+                .season(Season.SUMMER)
+                .userSeasons(new ArrayList<>())
+                .colors(new ArrayList<>())
+                .build();
+        ReflectionTestUtils.setField(item, "id", id);
+        ReflectionTestUtils.setField(item, "createdAt", LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+        return item;
+    }
+}
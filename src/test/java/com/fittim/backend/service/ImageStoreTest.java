@@ -0,0 +1,158 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.entity.StoredImage;
+import com.fittim.backend.event.StoredImageReleasedEvent;
+import com.fittim.backend.repository.StoredImageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private final StoredImageRepository storedImageRepository = mock(StoredImageRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ImageStorage imageStorage = mock(ImageStorage.class);
+
+    @Test
+    @DisplayName("Identical uploads share one sharded, content-addressed file")
+    void store_DeduplicatesIdenticalContent() throws Exception {
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, root.toString());
+        byte[] bytes = "same photo".getBytes();
+
+        ImageStore.Stored first = store.store(new MockMultipartFile("image", "a.JPG", "image/jpeg", bytes));
+        ImageStore.Stored second = store.store(new MockMultipartFile("image", "b.jpg", "image/jpeg", bytes));
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first.key()).matches("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.jpg");
+        assertThat(first.key()).startsWith(first.key().substring(6, 8) + "/" + first.key().substring(8, 10));
+        assertThat(Files.readAllBytes(store.resolve(first.key()))).isEqualTo(bytes);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(1);
+        }
+        // The duplicate is published again so the storage copy is fresh until it is retained
+        verify(imageStorage, times(2)).put(first.key(), store.resolve(first.key()), "image/jpeg");
+    }
+
+    @Test
+    @DisplayName("A file the storage rejected is not kept, so the next identical upload publishes it again")
+    void store_FailedPublishIsRetried() throws Exception {
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, root.toString());
+        MockMultipartFile image = new MockMultipartFile("image", "a.png", "image/png", "photo".getBytes());
+        willThrow(new IOException("unavailable")).willDoNothing()
+                .given(imageStorage).put(anyString(), any(Path.class), anyString());
+
+        assertThatThrownBy(() -> store.store(image)).isInstanceOf(IOException.class);
+        ImageStore.Stored stored = store.store(image);
+
+        assertThat(store.resolve(stored.key())).exists();
+        verify(imageStorage, times(2)).put(stored.key(), store.resolve(stored.key()), "image/png");
+    }
+
+    @Test
+    @DisplayName("Lookups and redirects reject paths that escape the root or point into the incoming directory")
+    void lookup_RejectsTraversal() throws Exception {
+        Path storeRoot = root.resolve("store");
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, storeRoot.toString());
+        ImageStore.Stored stored = store.store(new MockMultipartFile("image", "a.jpg", "image/jpeg", "x".getBytes()));
+        Files.writeString(root.resolve("secret.jpg"), "outside the root");
+        Path pending = store.createIncomingFile("upload-");
+        String pendingKey = ".incoming/" + pending.getFileName();
+        URI cdn = URI.create("https://cdn.example.com/" + stored.key());
+        given(imageStorage.redirectUrl(stored.key())).willReturn(Optional.of(cdn));
+
+        assertThat(store.lookup(stored.key())).contains(store.resolve(stored.key()).normalize());
+        assertThat(store.redirectUrl(stored.key())).contains(cdn);
+        for (String key : List.of("../secret.jpg", stored.key().substring(0, 6) + "../../../secret.jpg",
+                root.resolve("secret.jpg").toString(), pendingKey)) {
+            assertThat(store.lookup(key)).as(key).isEmpty();
+            assertThat(store.redirectUrl(key)).as(key).isEmpty();
+        }
+        verify(imageStorage, times(1)).redirectUrl(anyString());
+    }
+
+    @Test
+    @DisplayName("The first reference inserts the row if absent, then increments it like any later one")
+    void retain_InsertsOnlyOnce() throws Exception {
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, root.toString());
+        ImageStore.Stored stored = store.store(new MockMultipartFile("image", "a.jpg", "image/jpeg", "x".getBytes()));
+        given(storedImageRepository.incrementRefCount(stored.key())).willReturn(0, 1, 1);
+
+        store.retain(stored);
+        store.retain(stored);
+
+        verify(storedImageRepository, times(1)).insertIfAbsent(stored.key(), stored.size());
+        verify(storedImageRepository, times(3)).incrementRefCount(stored.key());
+        verify(storedImageRepository, never()).save(any(StoredImage.class));
+    }
+
+    @Test
+    @DisplayName("A retain that finds its deduplicated file deleted by a release fails instead of referencing it")
+    void retain_FailsWhenFileWasReleased() {
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, root.toString());
+        given(storedImageRepository.incrementRefCount("ab/cd/gone.jpg")).willReturn(0);
+
+        assertThatThrownBy(() -> store.retain(new ImageStore.Stored("ab/cd/gone.jpg", 10)))
+                .isInstanceOf(IllegalStateException.class);
+        verify(storedImageRepository, never()).insertIfAbsent(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Release only schedules file deletion once the last reference is gone")
+    void release_PublishesWhenUnreferenced() {
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, root.toString());
+        given(storedImageRepository.decrementRefCount(anyString())).willReturn(1);
+        given(storedImageRepository.findRefCount("ab/cd/1.jpg")).willReturn(Optional.of(1));
+        given(storedImageRepository.findRefCount("ab/cd/2.jpg")).willReturn(Optional.of(0));
+
+        store.release("ab/cd/1.jpg");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        store.release("ab/cd/2.jpg");
+        verify(eventPublisher).publishEvent(new StoredImageReleasedEvent("ab/cd/2.jpg"));
+    }
+
+    @Test
+    @DisplayName("Files are deleted only while the row is still unreferenced, under its lock")
+    void onReleased_SkipsImagesRetainedAgain() throws Exception {
+        ImageStore store = new ImageStore(storedImageRepository, eventPublisher, imageStorage, root.toString());
+        ImageStore.Stored kept = store.store(new MockMultipartFile("image", "a.jpg", "image/jpeg", "a".getBytes()));
+        ImageStore.Stored released = store.store(new MockMultipartFile("image", "b.jpg", "image/jpeg", "b".getBytes()));
+        given(storedImageRepository.lockUnreferenced(kept.key())).willReturn(Optional.empty());
+        given(storedImageRepository.lockUnreferenced(released.key()))
+                .willReturn(Optional.of(new StoredImage(released.key(), 1)));
+
+        store.onReleased(new StoredImageReleasedEvent(kept.key()));
+        store.onReleased(new StoredImageReleasedEvent(released.key()));
+
+        assertThat(store.resolve(kept.key())).exists();
+        assertThat(store.resolve(released.key())).doesNotExist();
+        verify(imageStorage, never()).delete(kept.key());
+        verify(imageStorage).delete(released.key());
+        verify(storedImageRepository).deleteIfUnreferenced(released.key());
+    }
+}
@@ -0,0 +1,64 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.event.WardrobeImageStoredEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path uploads;
+
+    private final WardrobeService wardrobeService = mock(WardrobeService.class);
+    private final ImageStore imageStore = mock(ImageStore.class);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Variants are downscaled JPEGs and their URLs are written back to the item")
+    void onImageStored_WritesVariants() throws Exception {
+        executor.setCorePoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        ImageVariantService service = new ImageVariantService(wardrobeService, imageStore,
+                new SimpleMeterRegistry(), executor);
+        ReflectionTestUtils.setField(service, "quality", 0.8f);
+
+        Path original = uploads.resolve("abc_shirt.png");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        service.onImageStored(new WardrobeImageStoredEvent(7L, 1L, original, "http://localhost/images/abc_shirt.png",
+                false, null));
+        executor.getThreadPoolExecutor().shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        BufferedImage thumb = ImageIO.read(uploads.resolve("abc_shirt_thumb.jpg").toFile());
+        BufferedImage medium = ImageIO.read(uploads.resolve("abc_shirt_medium.jpg").toFile());
+        assertThat(thumb.getWidth()).isEqualTo(240);
+        assertThat(thumb.getHeight()).isEqualTo(120);
+        assertThat(medium.getWidth()).isEqualTo(960);
+        verify(imageStore).publish(uploads.resolve("abc_shirt_thumb.jpg"));
+        verify(imageStore).publish(uploads.resolve("abc_shirt_medium.jpg"));
+        verify(wardrobeService).setVariantUrls(1L, 7L, "http://localhost/images/abc_shirt_thumb.jpg",
+                "http://localhost/images/abc_shirt_medium.jpg");
+    }
+}
@@ -0,0 +1,113 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.repository.StoredImageRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class OrphanImageSweeperTest {
+
+    private static final String REFERENCED = "aa/00/aa00" + "a".repeat(60);
+    private static final String ORPHAN = "aa/00/aa00" + "b".repeat(60);
+    private static final String YOUNG_ORPHAN = "bb/11/bb11" + "c".repeat(60);
+    private static final String SECOND_PAGE = "ff/ee/ffee" + "d".repeat(60);
+    // Referenced by an item but missing from storage
+    private static final String MISSING = "cc/22/cc22" + "e".repeat(60);
+
+    @TempDir
+    Path root;
+
+    private final WardrobeItemRepository wardrobeItemRepository = mock(WardrobeItemRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrphanImageSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        List<String> referencedKeys = List.of(REFERENCED + ".jpg", MISSING + ".jpg", SECOND_PAGE + ".jpg");
+        given(wardrobeItemRepository.findImageKeysAfter(anyString(), any(Pageable.class))).willAnswer(invocation -> {
+            String after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return referencedKeys.stream()
+                    .filter(key -> key.compareTo(after) > 0)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+
+        LocalImageStorage storage = new LocalImageStorage(root.toString());
+        ImageStore imageStore = new ImageStore(mock(StoredImageRepository.class),
+                mock(ApplicationEventPublisher.class), storage, root.toString());
+        sweeper = new OrphanImageSweeper(storage, imageStore, wardrobeItemRepository, meterRegistry,
+                Duration.ofHours(1), 2);
+    }
+
+    @Test
+    @DisplayName("Unreferenced images past the grace period are deleted with their variants")
+    void sweep_DeletesOldUnreferencedImages() throws Exception {
+        write(REFERENCED + ".jpg", 10, true);
+        write(REFERENCED + "_thumb.jpg", 3, true);
+        write(REFERENCED + "_medium.jpg", 5, true);
+        write(ORPHAN + ".png", 100, true);
+        write(ORPHAN + "_thumb.jpg", 7, true);
+        write(YOUNG_ORPHAN + ".jpg", 50, false);
+        write(SECOND_PAGE + ".jpg", 20, true);
+        write("legacy_photo.jpg", 30, true);
+        write(".incoming/upload-1.tmp", 40, true);
+
+        OrphanImageSweeper.SweepResult result = sweeper.sweep();
+
+        assertThat(result).isEqualTo(new OrphanImageSweeper.SweepResult(8, 2, 107));
+        assertThat(root.resolve(ORPHAN + ".png")).doesNotExist();
+        assertThat(root.resolve(ORPHAN + "_thumb.jpg")).doesNotExist();
+        assertThat(root.resolve(REFERENCED + ".jpg")).exists();
+        assertThat(root.resolve(REFERENCED + "_thumb.jpg")).exists();
+        assertThat(root.resolve(REFERENCED + "_medium.jpg")).exists();
+        assertThat(root.resolve(YOUNG_ORPHAN + ".jpg")).exists();
+        assertThat(root.resolve(SECOND_PAGE + ".jpg")).exists();
+        assertThat(root.resolve("legacy_photo.jpg")).exists();
+        assertThat(meterRegistry.counter("image.sweeper.reclaimed.bytes").count()).isEqualTo(107);
+    }
+
+    @Test
+    @DisplayName("An item referencing the image after its page was read keeps it")
+    void sweep_RechecksBeforeDeleting() throws Exception {
+        write(ORPHAN + ".png", 100, true);
+        given(wardrobeItemRepository.existsByImageKeyStartingWith(ORPHAN + ".")).willReturn(true);
+
+        assertThat(sweeper.sweep().deleted()).isZero();
+        assertThat(root.resolve(ORPHAN + ".png")).exists();
+    }
+
+    @Test
+    void imageOf_StripsVariantAndExtension() {
+        assertThat(OrphanImageSweeper.imageOf(ORPHAN + "_medium.jpg")).isEqualTo(ORPHAN);
+        assertThat(OrphanImageSweeper.imageOf(ORPHAN + ".heic")).isEqualTo(ORPHAN);
+        assertThat(OrphanImageSweeper.imageOf("legacy_photo.jpg")).isNull();
+    }
+
+    private void write(String key, int size, boolean old) throws Exception {
+        Path file = root.resolve(key);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        if (old) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        }
+    }
+}
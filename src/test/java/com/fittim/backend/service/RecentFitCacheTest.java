@@ -0,0 +1,116 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.repository.FitHistoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RecentFitCacheTest {
+
+    private final FitHistoryRepository fitHistoryRepository = mock(FitHistoryRepository.class);
+
+    @Test
+    @DisplayName("Pairs older than the look-back window are no longer penalized")
+    void repeatPenalty_HonorsWindow() {
+        given(fitHistoryRepository.findRecentOutfitIds(eq(1L), any(Pageable.class))).willReturn(List.of());
+        RecentFitCache cache = new RecentFitCache(fitHistoryRepository, 3);
+        cache.recentPairs(1L);
+
+        cache.record(1L, 10L, 20L); // will be pushed out
+        cache.record(1L, 11L, 21L);
+        cache.record(1L, 12L, 22L);
+        cache.record(1L, 13L, 23L);
+
+        assertThat(cache.repeatPenalty(1L, 10L, 20L)).isZero();
+        assertThat(cache.repeatPenalty(1L, 13L, 23L)).isEqualTo(1.0);
+        assertThat(cache.repeatPenalty(1L, 12L, 22L)).isEqualTo(2.0 / 3);
+        assertThat(cache.repeatPenalty(1L, 11L, 21L)).isEqualTo(1.0 / 3);
+        assertThat(cache.recentPairs(1L)).hasSize(3);
+        assertThat(cache.recentPairs(1L).get(0)).containsExactly(13L, 23L);
+    }
+
+    @Test
+    @DisplayName("History is loaded once per user, newest row first")
+    void load_ReadsHistoryOnce() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 2L, 4L }); // newest
+        rows.add(new Object[] { 1L, 3L });
+        given(fitHistoryRepository.findRecentOutfitIds(eq(7L), any(Pageable.class))).willReturn(rows);
+        RecentFitCache cache = new RecentFitCache(fitHistoryRepository, 5);
+
+        assertThat(cache.repeatPenalty(7L, 2L, 4L)).isEqualTo(1.0);
+        assertThat(cache.repeatPenalty(7L, 1L, 3L)).isEqualTo(4.0 / 5);
+        assertThat(cache.repeatPenalty(7L, 2L, 3L)).isZero();
+
+        verify(fitHistoryRepository, times(1)).findRecentOutfitIds(eq(7L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Ids beyond any bit width stay distinct and come back unchanged")
+    void record_KeepsLargeIdsDistinct() {
+        given(fitHistoryRepository.findRecentOutfitIds(eq(1L), any(Pageable.class))).willReturn(List.of());
+        RecentFitCache cache = new RecentFitCache(fitHistoryRepository, 5);
+        cache.recentPairs(1L);
+        long large = (1L << 21) + 10;
+
+        cache.record(1L, large, 20L);
+
+        assertThat(cache.repeatPenalty(1L, 10L, 20L)).isZero();
+        assertThat(cache.repeatPenalty(1L, large, 20L)).isEqualTo(1.0);
+        assertThat(cache.recentPairs(1L).get(0)).containsExactly(large, 20L);
+    }
+
+    @Test
+    @DisplayName("A selection is recorded only once its transaction commits")
+    void record_WaitsForCommit() {
+        given(fitHistoryRepository.findRecentOutfitIds(eq(1L), any(Pageable.class))).willReturn(List.of());
+        RecentFitCache cache = new RecentFitCache(fitHistoryRepository, 5);
+        cache.recentPairs(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.record(1L, 10L, 20L);
+            cache.record(1L, 11L, 21L);
+            assertThat(cache.recentPairs(1L)).isEmpty();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.repeatPenalty(1L, 10L, 20L)).isZero();
+        assertThat(cache.repeatPenalty(1L, 11L, 21L)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Buffers not read since the last pass are evicted")
+    void evictIdle_DropsUnreadUsers() {
+        given(fitHistoryRepository.findRecentOutfitIds(any(), any(Pageable.class))).willReturn(List.of());
+        RecentFitCache cache = new RecentFitCache(fitHistoryRepository, 5);
+        cache.recentPairs(1L);
+        cache.recentPairs(2L);
+
+        cache.evictIdle(); // both were read; flags reset
+        cache.recentPairs(1L);
+        cache.evictIdle();
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.recentPairs(2L);
+        verify(fitHistoryRepository, times(2)).findRecentOutfitIds(eq(2L), any(Pageable.class));
+    }
+}
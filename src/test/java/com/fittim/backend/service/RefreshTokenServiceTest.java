@@ -0,0 +1,103 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.config.JpaConfig;
+import com.fittim.backend.config.JwtTokenProvider;
+import com.fittim.backend.dto.JwtResponse;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ JpaConfig.class, RefreshTokenService.class, RevokedSessions.class, JwtTokenProvider.class,
+        CustomUserDetailsService.class })
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevokedSessions revokedSessions;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("test@example.com")
+                .password("x")
+                .nickname("tester")
+                .role("ROLE_USER")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Each refresh replaces the refresh token and keeps the session")
+    void refresh_RotatesToken() {
+        JwtResponse login = refreshTokenService.startSession(user);
+
+        JwtResponse refreshed = refreshTokenService.refresh(login.refreshToken());
+
+        assertThat(refreshed.refreshToken()).isNotEqualTo(login.refreshToken());
+        assertThat(sessionOf(refreshed.accessToken())).isEqualTo(sessionOf(login.accessToken()));
+        assertThat(refreshTokenService.refresh(refreshed.refreshToken()).refreshToken())
+                .isNotEqualTo(refreshed.refreshToken());
+    }
+
+    @Test
+    @DisplayName("Reusing a replaced refresh token revokes the whole session")
+    void refresh_ReuseRevokesSession() {
+        JwtResponse login = refreshTokenService.startSession(user);
+        JwtResponse refreshed = refreshTokenService.refresh(login.refreshToken());
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(login.refreshToken()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(RefreshTokenService.INVALID_TOKEN);
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshed.refreshToken()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        revokedSessions.sync();
+        assertThat(jwtTokenProvider.parseClaims(refreshed.accessToken())).isNull();
+    }
+
+    @Test
+    @DisplayName("Logout ends only its own session")
+    void logout_RevokesSession() {
+        JwtResponse phone = refreshTokenService.startSession(user);
+        JwtResponse laptop = refreshTokenService.startSession(user);
+
+        refreshTokenService.logout(phone.refreshToken());
+        refreshTokenService.logout(phone.refreshToken());
+        revokedSessions.sync();
+
+        assertThat(jwtTokenProvider.parseClaims(phone.accessToken())).isNull();
+        assertThatThrownBy(() -> refreshTokenService.refresh(phone.refreshToken()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(jwtTokenProvider.parseClaims(laptop.accessToken())).isNotNull();
+        assertThat(refreshTokenService.refresh(laptop.refreshToken()).accessToken()).isNotBlank();
+    }
+
+    @Test
+    void refresh_RejectsUnknownToken() {
+        assertThatThrownBy(() -> refreshTokenService.refresh("unknown"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(RefreshTokenService.INVALID_TOKEN);
+    }
+
+    private String sessionOf(String accessToken) {
+        return jwtTokenProvider.parseClaims(accessToken).get("sid", String.class);
+    }
+}
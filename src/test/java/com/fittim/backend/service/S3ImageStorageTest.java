@@ -0,0 +1,346 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.util.AwsSigV4Signer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs S3ImageStorage against an in-process S3 stand-in that checks every SigV4 signature.
+ */
+class S3ImageStorageTest {
+
+    private static final String ACCESS_KEY = "test-access";
+    private static final String SECRET_KEY = "test-secret";
+    private static final String REGION = "us-east-1";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    @TempDir
+    Path dir;
+
+    private final FakeS3 s3 = new FakeS3();
+    private HttpServer server;
+    private S3ImageStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", s3::handle);
+        server.start();
+        String endpoint = "http://localhost:" + server.getAddress().getPort();
+        storage = new S3ImageStorage(WebClient.create(), endpoint, "wardrobe", REGION, ACCESS_KEY, SECRET_KEY,
+                DataSize.ofBytes(1024), Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Files up to the part size go up in one signed PUT with their content type")
+    void put_SmallFileUsesSinglePut() throws Exception {
+        byte[] bytes = randomBytes(700);
+        Path file = Files.write(dir.resolve("small.jpg"), bytes);
+
+        storage.put("ab/cd/small.jpg", file, "image/jpeg");
+
+        assertThat(s3.requests).containsExactly("PUT /wardrobe/ab/cd/small.jpg");
+        assertThat(s3.objects.get("/wardrobe/ab/cd/small.jpg")).isEqualTo(bytes);
+        assertThat(s3.contentTypes.get("/wardrobe/ab/cd/small.jpg")).isEqualTo("image/jpeg");
+    }
+
+    @Test
+    @DisplayName("Larger files are streamed as a multipart upload, one file region per part")
+    void put_LargeFileUsesMultipartUpload() throws Exception {
+        byte[] bytes = randomBytes(2500);
+        Path file = Files.write(dir.resolve("large.png"), bytes);
+
+        storage.put("ab/cd/large.png", file, "image/png");
+
+        assertThat(s3.requests).containsExactly(
+                "POST /wardrobe/ab/cd/large.png?uploads",
+                "PUT /wardrobe/ab/cd/large.png?partNumber=1&uploadId=upload-1",
+                "PUT /wardrobe/ab/cd/large.png?partNumber=2&uploadId=upload-1",
+                "PUT /wardrobe/ab/cd/large.png?partNumber=3&uploadId=upload-1",
+                "POST /wardrobe/ab/cd/large.png?uploadId=upload-1");
+        assertThat(s3.objects.get("/wardrobe/ab/cd/large.png")).isEqualTo(bytes);
+        assertThat(s3.contentTypes.get("/wardrobe/ab/cd/large.png")).isEqualTo("image/png");
+        assertThat(s3.uploads).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A failed part aborts the multipart upload instead of leaving parts behind")
+    void put_FailedPartAbortsUpload() throws Exception {
+        Path file = Files.write(dir.resolve("large.jpg"), randomBytes(2500));
+        s3.failPart = 2;
+
+        assertThatThrownBy(() -> storage.put("ab/cd/large.jpg", file, "image/jpeg"))
+                .isInstanceOf(IOException.class);
+
+        assertThat(s3.requests).last().isEqualTo("DELETE /wardrobe/ab/cd/large.jpg?uploadId=upload-1");
+        assertThat(s3.uploads).isEmpty();
+        assertThat(s3.objects).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Presigned URLs download without credentials and stop working when tampered with")
+    void redirectUrl_IsPresigned() throws Exception {
+        byte[] bytes = randomBytes(300);
+        storage.put("ab/cd/photo.jpg", Files.write(dir.resolve("photo.jpg"), bytes), "image/jpeg");
+
+        URI url = storage.redirectUrl("ab/cd/photo.jpg").orElseThrow();
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(url).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        URI tampered = URI.create(url.toString().replace("photo.jpg", "other.jpg"));
+        HttpResponse<byte[]> rejected = client.send(HttpRequest.newBuilder(tampered).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(url.getQuery()).contains("X-Amz-Expires=600");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(bytes);
+        assertThat(rejected.statusCode()).isEqualTo(403);
+    }
+
+    @Test
+    @DisplayName("Listing pages through the bucket in key order")
+    void list_ReturnsAllObjectsInKeyOrder() throws Exception {
+        for (String key : List.of("bb/00/b.jpg", "aa/00/a.jpg", "aa/00/a_thumb.jpg")) {
+            storage.put(key, Files.write(dir.resolve("f"), randomBytes(5)), "image/jpeg");
+        }
+        s3.requests.clear();
+
+        List<String> keys = new ArrayList<>();
+        storage.list().forEachRemaining(object -> keys.add(object.key() + ":" + object.size()));
+
+        assertThat(keys).containsExactly("aa/00/a.jpg:5", "aa/00/a_thumb.jpg:5", "bb/00/b.jpg:5");
+        assertThat(s3.requests).containsExactly(
+                "GET /wardrobe?list-type=2&max-keys=1000",
+                "GET /wardrobe?list-type=2&max-keys=1000&continuation-token=page%2F2%3D");
+    }
+
+    @Test
+    void delete_RemovesObject() throws Exception {
+        storage.put("ab/cd/gone.jpg", Files.write(dir.resolve("gone.jpg"), randomBytes(10)), "image/jpeg");
+
+        storage.delete("ab/cd/gone.jpg");
+
+        assertThat(s3.objects).isEmpty();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * The subset of the S3 REST API the storage uses, keyed by request path.
+     */
+    private static class FakeS3 {
+
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+        final Map<String, TreeMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+        final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger uploadIds = new AtomicInteger();
+        final AwsSigV4Signer signer = new AwsSigV4Signer(ACCESS_KEY, SECRET_KEY, REGION, "s3");
+        volatile int failPart;
+
+        void handle(HttpExchange exchange) throws IOException {
+            try (exchange) {
+                String method = exchange.getRequestMethod();
+                String path = exchange.getRequestURI().getRawPath();
+                String query = exchange.getRequestURI().getRawQuery();
+                Map<String, String> params = params(query);
+                byte[] body = exchange.getRequestBody().readAllBytes();
+
+                if (method.equals("GET") && !params.containsKey("list-type")) {
+                    byte[] object = objects.get(path);
+                    if (!validPresignedUrl(exchange, params)) {
+                        respond(exchange, 403, "<Error><Code>SignatureDoesNotMatch</Code></Error>");
+                    } else if (object == null) {
+                        respond(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+                    } else {
+                        exchange.sendResponseHeaders(200, object.length);
+                        exchange.getResponseBody().write(object);
+                    }
+                    return;
+                }
+
+                requests.add(method + " " + (query == null ? path : path + "?" + query));
+                if (!validSignature(exchange)) {
+                    respond(exchange, 403, "<Error><Code>SignatureDoesNotMatch</Code></Error>");
+                    return;
+                }
+                if (method.equals("POST") && params.containsKey("uploads")) {
+                    String uploadId = "upload-" + uploadIds.incrementAndGet();
+                    uploads.put(uploadId, new TreeMap<>());
+                    contentTypes.put(path, exchange.getRequestHeaders().getFirst("Content-Type"));
+                    respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + uploadId
+                            + "</UploadId></InitiateMultipartUploadResult>");
+                } else if (method.equals("GET")) {
+                    respond(exchange, 200, listing(path, params.get("continuation-token")));
+                } else if (method.equals("PUT") && params.containsKey("partNumber")) {
+                    int partNumber = Integer.parseInt(params.get("partNumber"));
+                    if (partNumber == failPart) {
+                        respond(exchange, 500, "<Error><Code>InternalError</Code></Error>");
+                        return;
+                    }
+                    uploads.get(params.get("uploadId")).put(partNumber, body);
+                    exchange.getResponseHeaders().set("ETag", "\"etag-" + partNumber + "\"");
+                    respond(exchange, 200, "");
+                } else if (method.equals("POST") && params.containsKey("uploadId")) {
+                    ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+                    TreeMap<Integer, byte[]> parts = uploads.remove(params.get("uploadId"));
+                    for (Map.Entry<Integer, byte[]> part : parts.entrySet()) {
+                        String listed = "<PartNumber>" + part.getKey() + "</PartNumber><ETag>\"etag-"
+                                + part.getKey() + "\"</ETag>";
+                        if (!new String(body, StandardCharsets.UTF_8).contains(listed)) {
+                            respond(exchange, 200, "<Error><Code>InvalidPart</Code></Error>");
+                            return;
+                        }
+                        assembled.write(part.getValue());
+                    }
+                    objects.put(path, assembled.toByteArray());
+                    respond(exchange, 200, "<CompleteMultipartUploadResult/>");
+                } else if (method.equals("DELETE") && params.containsKey("uploadId")) {
+                    uploads.remove(params.get("uploadId"));
+                    exchange.sendResponseHeaders(204, -1);
+                } else if (method.equals("PUT")) {
+                    objects.put(path, body);
+                    contentTypes.put(path, exchange.getRequestHeaders().getFirst("Content-Type"));
+                    respond(exchange, 200, "");
+                } else if (method.equals("DELETE")) {
+                    objects.remove(path);
+                    exchange.sendResponseHeaders(204, -1);
+                } else {
+                    respond(exchange, 405, "");
+                }
+            }
+        }
+
+        /**
+         * ListObjectsV2, two keys per page, with a continuation token that needs encoding.
+         */
+        private String listing(String bucketPath, String continuationToken) {
+            String prefix = bucketPath + "/";
+            List<String> keys = objects.keySet().stream()
+                    .filter(path -> path.startsWith(prefix))
+                    .map(path -> path.substring(prefix.length()))
+                    .sorted()
+                    .toList();
+            int from = continuationToken == null ? 0
+                    : Integer.parseInt(URLDecoder.decode(continuationToken, StandardCharsets.UTF_8)
+                            .replaceAll("\\D", ""));
+            int to = Math.min(keys.size(), from + 2);
+
+            StringBuilder xml = new StringBuilder("<ListBucketResult><IsTruncated>").append(to < keys.size())
+                    .append("</IsTruncated>");
+            for (String key : keys.subList(from, to)) {
+                xml.append("<Contents><Key>").append(key).append("</Key><LastModified>2024-01-01T00:00:00.000Z")
+                        .append("</LastModified><Size>").append(objects.get(prefix + key).length)
+                        .append("</Size></Contents>");
+            }
+            if (to < keys.size()) {
+                xml.append("<NextContinuationToken>page/").append(to).append("=</NextContinuationToken>");
+            }
+            return xml.append("</ListBucketResult>").toString();
+        }
+
+        private boolean validSignature(HttpExchange exchange) {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            String date = exchange.getRequestHeaders().getFirst("x-amz-date");
+            if (authorization == null || date == null) {
+                return false;
+            }
+            String signedHeaders = authorization.replaceAll(".*SignedHeaders=([^,]+),.*", "$1");
+            Map<String, String> headers = new HashMap<>();
+            for (String name : signedHeaders.split(";")) {
+                if (!name.equals("host") && !name.startsWith("x-amz-")) {
+                    headers.put(name, exchange.getRequestHeaders().getFirst(name));
+                }
+            }
+            Map<String, String> expected = signer.sign(exchange.getRequestMethod(), uri(exchange), headers,
+                    exchange.getRequestHeaders().getFirst("x-amz-content-sha256"),
+                    LocalDateTime.parse(date, TIMESTAMP).toInstant(ZoneOffset.UTC));
+            return authorization.equals(expected.get("Authorization"));
+        }
+
+        private boolean validPresignedUrl(HttpExchange exchange, Map<String, String> params) {
+            String date = params.get("X-Amz-Date");
+            String expires = params.get("X-Amz-Expires");
+            String signature = params.get("X-Amz-Signature");
+            if (date == null || expires == null || signature == null) {
+                return false;
+            }
+            URI unsigned = URI.create("http://" + exchange.getRequestHeaders().getFirst("Host")
+                    + exchange.getRequestURI().getRawPath());
+            URI expected = signer.presign("GET", unsigned, Duration.ofSeconds(Long.parseLong(expires)),
+                    LocalDateTime.parse(date, TIMESTAMP).toInstant(ZoneOffset.UTC));
+            return expected.equals(uri(exchange));
+        }
+
+        private static URI uri(HttpExchange exchange) {
+            return URI.create("http://" + exchange.getRequestHeaders().getFirst("Host")
+                    + exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() != null
+                            ? "?" + exchange.getRequestURI().getRawQuery()
+                            : ""));
+        }
+
+        private static Map<String, String> params(String query) {
+            Map<String, String> params = new HashMap<>();
+            if (query != null) {
+                for (String param : query.split("&")) {
+                    int eq = param.indexOf('=');
+                    params.put(eq >= 0 ? param.substring(0, eq) : param, eq >= 0 ? param.substring(eq + 1) : "");
+                }
+            }
+            return params;
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                exchange.getResponseBody().write(bytes);
+            }
+        }
+    }
+}
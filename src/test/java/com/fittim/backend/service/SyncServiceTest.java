@@ -0,0 +1,119 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.SyncChangesDto;
+import com.fittim.backend.repository.FitHistoryRepository;
+import com.fittim.backend.repository.SyncCounterRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import com.fittim.backend.repository.WardrobeTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final SyncCounterRepository syncCounterRepository = mock(SyncCounterRepository.class);
+    private final WardrobeItemRepository wardrobeItemRepository = mock(WardrobeItemRepository.class);
+    private final WardrobeTombstoneRepository wardrobeTombstoneRepository = mock(WardrobeTombstoneRepository.class);
+    private final FitHistoryRepository fitHistoryRepository = mock(FitHistoryRepository.class);
+    private SyncService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SyncService(syncCounterRepository, wardrobeTombstoneRepository, wardrobeItemRepository,
+                fitHistoryRepository, mock(WardrobeReader.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("One version per user per transaction; the first write creates the counter")
+    void nextVersion_OncePerTransaction() {
+        when(syncCounterRepository.increment(USER_ID)).thenReturn(0, 1);
+        when(syncCounterRepository.findVersionByUserId(USER_ID)).thenReturn(Optional.of(1L), Optional.of(2L));
+
+        inTransaction(() -> {
+            assertThat(service.nextVersion(USER_ID)).isEqualTo(1);
+            assertThat(service.nextVersion(USER_ID)).isEqualTo(1);
+        });
+        verify(syncCounterRepository).insertIfAbsent(USER_ID);
+        verify(syncCounterRepository, times(2)).increment(USER_ID);
+
+        inTransaction(() -> assertThat(service.nextVersion(USER_ID)).isEqualTo(2));
+        verify(syncCounterRepository, times(3)).increment(USER_ID);
+        verify(syncCounterRepository).insertIfAbsent(USER_ID);
+
+        assertThatThrownBy(() -> service.nextVersion(USER_ID)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Delta syncs read rows after the client's version; full syncs skip deletions")
+    void changes_DeltaAndFull() {
+        when(syncCounterRepository.findVersionByUserId(USER_ID)).thenReturn(Optional.of(5L));
+        when(wardrobeTombstoneRepository.findDeletedItemIds(USER_ID, 3L, 5L)).thenReturn(List.of(11L));
+        when(fitHistoryRepository.findDeselectedIds(USER_ID, 3L, 5L)).thenReturn(List.of(21L));
+
+        SyncChangesDto delta = service.changes(USER_ID, 3L);
+        assertThat(delta.version()).isEqualTo(5);
+        assertThat(delta.full()).isFalse();
+        assertThat(delta.deletedWardrobeIds()).containsExactly(11L);
+        assertThat(delta.removedHistoryIds()).containsExactly(21L);
+        verify(wardrobeItemRepository).findChangedRows(USER_ID, 3L, 5L);
+
+        SyncChangesDto full = service.changes(USER_ID, null);
+        assertThat(full.full()).isTrue();
+        assertThat(full.deletedWardrobeIds()).isEmpty();
+        verify(wardrobeItemRepository).findChangedRows(USER_ID, -1L, 5L);
+        verify(fitHistoryRepository).findChangedHistory(USER_ID, -1L, 5L);
+
+        // Client from before a data reset: start over
+        assertThat(service.changes(USER_ID, 9L).full()).isTrue();
+    }
+
+    @Test
+    @DisplayName("An up-to-date client gets an empty response without querying rows")
+    void changes_UpToDate() {
+        when(syncCounterRepository.findVersionByUserId(USER_ID)).thenReturn(Optional.of(5L));
+
+        SyncChangesDto changes = service.changes(USER_ID, 5L);
+
+        assertThat(changes.wardrobe()).isEmpty();
+        assertThat(changes.history()).isEmpty();
+        verify(wardrobeItemRepository, never()).findChangedRows(eq(USER_ID), anyLong(), anyLong());
+    }
+
+    private static void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                    TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.UploadSessionDto;
+import com.fittim.backend.dto.UploadSessionRequest;
+import com.fittim.backend.dto.WardrobeBulkItemRequest;
+import com.fittim.backend.repository.StoredImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UploadSessionServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @TempDir
+    Path root;
+
+    private final WardrobeService wardrobeService = mock(WardrobeService.class);
+    private ImageStore imageStore;
+    private UploadSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new ImageStore(mock(StoredImageRepository.class), mock(ApplicationEventPublisher.class),
+                new LocalImageStorage(root.toString()), root.toString());
+        service = new UploadSessionService(imageStore, wardrobeService, DataSize.ofMegabytes(1), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Chunks resume from the reported offset and completion stores the assembled file")
+    void chunksResumeAndComplete() throws Exception {
+        UploadSessionDto session = service.create(USER_ID, request(10));
+
+        assertThat(service.writeChunk(USER_ID, session.id(), 0, stream("01234")).offset()).isEqualTo(5);
+        // Retried chunk overlapping received bytes is accepted
+        assertThat(service.writeChunk(USER_ID, session.id(), 3, stream("34567")).offset()).isEqualTo(8);
+        assertThatThrownBy(() -> service.writeChunk(USER_ID, session.id(), 9, stream("9")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.complete(USER_ID, session.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.writeChunk(USER_ID, session.id(), 8, stream("89")).offset()).isEqualTo(10);
+
+        service.complete(USER_ID, session.id());
+
+        ArgumentCaptor<ImageStore.Stored> stored = ArgumentCaptor.forClass(ImageStore.Stored.class);
+        verify(wardrobeService).createItem(eq(USER_ID), stored.capture(), any(WardrobeBulkItemRequest.class));
+        assertThat(stored.getValue().size()).isEqualTo(10);
+        assertThat(Files.readString(imageStore.resolve(stored.getValue().key()))).isEqualTo("0123456789");
+        assertThatThrownBy(() -> service.status(USER_ID, session.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("A completion whose item creation fails keeps the session and can be retried")
+    void completeRetriesAfterItemCreationFails() throws Exception {
+        UploadSessionDto session = service.create(USER_ID, request(4));
+        service.writeChunk(USER_ID, session.id(), 0, stream("0123"));
+        given(wardrobeService.createItem(eq(USER_ID), any(), any()))
+                .willThrow(new IllegalStateException("database unavailable"))
+                .willReturn(null);
+
+        assertThatThrownBy(() -> service.complete(USER_ID, session.id()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.status(USER_ID, session.id()).offset()).isEqualTo(4);
+
+        service.complete(USER_ID, session.id());
+
+        ArgumentCaptor<ImageStore.Stored> stored = ArgumentCaptor.forClass(ImageStore.Stored.class);
+        verify(wardrobeService, times(2)).createItem(eq(USER_ID), stored.capture(), any());
+        assertThat(stored.getAllValues().get(1)).isEqualTo(stored.getAllValues().get(0));
+        assertThat(Files.readString(imageStore.resolve(stored.getValue().key()))).isEqualTo("0123");
+        assertThatThrownBy(() -> service.status(USER_ID, session.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Sessions are private to their owner and bounded by the declared size")
+    void rejectsOtherUsersAndOversizedChunks() throws Exception {
+        UploadSessionDto session = service.create(USER_ID, request(4));
+
+        assertThatThrownBy(() -> service.status(8L, session.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.writeChunk(USER_ID, session.id(), 0, stream("12345")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.create(USER_ID, request(2 * 1024 * 1024)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Expired sessions are dropped and their temp files deleted")
+    void expireSessionsDeletesFiles() throws Exception {
+        UploadSessionService shortLived = new UploadSessionService(imageStore, wardrobeService,
+                DataSize.ofMegabytes(1), Duration.ZERO);
+        UploadSessionDto session = shortLived.create(USER_ID, request(4));
+        Thread.sleep(5);
+
+        shortLived.expireSessions();
+
+        try (var files = Files.list(imageStore.incomingDirectory())) {
+            assertThat(files.count()).isZero();
+        }
+        assertThatThrownBy(() -> shortLived.status(USER_ID, session.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static UploadSessionRequest request(long size) {
+        return new UploadSessionRequest("shirt.jpg", size, "TOP", "SUMMER", "shirt", null, List.of(), List.of());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
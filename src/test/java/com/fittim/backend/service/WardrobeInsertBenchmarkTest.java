@@ -0,0 +1,115 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.config.JpaConfig;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk insert of wardrobe items one statement per row (what IDENTITY ids forced) vs. JDBC
+ * batches with pooled sequence ids. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaConfig.class)
+class WardrobeInsertBenchmarkTest {
+
+    private static final int ITEMS = 500;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private WardrobeItemRepository wardrobeItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("bench@example.com")
+                .password("x")
+                .nickname("bench")
+                .role("ROLE_USER")
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void rowAtATimeVsBatchedInserts() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        Result rowAtATime = measure(statistics, 1);
+        Result batched = measure(statistics, null); // configured hibernate.jdbc.batch_size
+
+        System.out.printf("[wardrobe insert, %d items] row-at-a-time: %d statements, %.2f ms/op | "
+                + "batched: %d statements, %.2f ms/op%n",
+                ITEMS, rowAtATime.statements(), rowAtATime.millisPerOp(), batched.statements(), batched.millisPerOp());
+
+        assertThat(wardrobeItemRepository.count()).isEqualTo(2L * ITEMS * (ROUNDS + 1));
+        // Items, colors and seasons each go out in batches of 50, plus one sequence call per 50 ids
+        assertThat(batched.statements()).isLessThan(rowAtATime.statements() / 10);
+    }
+
+    private Result measure(Statistics statistics, Integer batchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        insert(); // warm-up
+
+        statistics.clear();
+        insert();
+        long statements = statistics.getPrepareStatementCount();
+
+        long start = System.nanoTime();
+        for (int i = 1; i < ROUNDS; i++) {
+            insert();
+        }
+        double millisPerOp = (System.nanoTime() - start) / 1_000_000.0 / (ROUNDS - 1);
+        session.setJdbcBatchSize(null);
+        return new Result(statements, millisPerOp);
+    }
+
+    private void insert() {
+        List<WardrobeItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(WardrobeItem.builder()
+                    .user(user)
+                    .category(Category.values()[i % Category.values().length])
+                    .season(Season.values()[i % Season.values().length])
+                    .imageUrl("http://localhost/images/" + i + ".jpg")
+                    .name("item " + i)
+                    .brand("brand " + (i % 10))
+                    .colors(new ArrayList<>(List.of("black", "white")))
+                    .userSeasons(new ArrayList<>(List.of("SPRING")))
+                    .build());
+        }
+        wardrobeItemRepository.saveAll(items);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private record Result(long statements, double millisPerOp) {
+    }
+}
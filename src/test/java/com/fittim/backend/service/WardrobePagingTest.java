@@ -0,0 +1,169 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.config.JpaConfig;
+import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.dto.WardrobePageDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.repository.SyncCounterRepository;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import({ JpaConfig.class, WardrobeReader.class })
+class WardrobePagingTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private WardrobeItemRepository wardrobeItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WardrobeReader wardrobeReader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private WardrobeService service;
+    private Long userId;
+    private List<WardrobeItem> items;
+
+    @BeforeEach
+    void setUp() {
+        SyncService syncService = mock(SyncService.class);
+        service = new WardrobeService(wardrobeItemRepository, userRepository, wardrobeReader, mock(ImageStore.class),
+                mock(ImageHasher.class), mock(DuplicateIndex.class), mock(WardrobeSearchIndex.class),
+                mock(WardrobeStats.class), syncService,
+                new ResourceVersionService(syncService, mock(SyncCounterRepository.class)),
+                mock(ApplicationEventPublisher.class), Runnable::run);
+
+        User user = save("paging@example.com");
+        User other = save("other@example.com");
+        userId = user.getId();
+
+        // Seven items in three createdAt groups of 3, 2 and 2, so page edges fall inside ties
+        items = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            items.add(item(user, i % 2 == 0 ? Category.TOP : Category.BOTTOM,
+                    i % 3 == 0 ? Season.WINTER : Season.SUMMER));
+        }
+        wardrobeItemRepository.saveAll(items);
+        wardrobeItemRepository.save(item(other, Category.TOP, Season.WINTER));
+        entityManager.flush();
+
+        for (int i = 0; i < items.size(); i++) {
+            LocalDateTime createdAt = BASE.plusMinutes(i < 3 ? 0 : i < 5 ? 1 : 2);
+            entityManager.createQuery("UPDATE WardrobeItem w SET w.createdAt = :createdAt WHERE w.id = :id")
+                    .setParameter("createdAt", createdAt)
+                    .setParameter("id", items.get(i).getId())
+                    .executeUpdate();
+            ReflectionTestUtils.setField(items.get(i), "createdAt", createdAt);
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Walking the pages returns every item once, newest first, across createdAt ties")
+    void page_WalksAllItemsAcrossTies() {
+        assertThat(walk(null, null, 3)).containsExactlyElementsOf(expected(item -> true));
+        assertThat(walk(null, null, 2)).containsExactlyElementsOf(expected(item -> true));
+    }
+
+    @Test
+    @DisplayName("The last page has no cursor, also when it is exactly full")
+    void page_LastPageHasNoCursor() {
+        WardrobePageDto all = service.getMyWardrobePage(userId, null, null, null, 7);
+        assertThat(all.items()).hasSize(7);
+        assertThat(all.nextCursor()).isNull();
+
+        WardrobePageDto first = service.getMyWardrobePage(userId, null, null, null, 6);
+        assertThat(first.nextCursor()).isNotNull();
+        WardrobePageDto last = service.getMyWardrobePage(userId, null, null, first.nextCursor(), 6);
+        assertThat(last.items()).hasSize(1);
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Category, season and both filters each page through only matching items")
+    void page_Filters() {
+        assertThat(walk(Category.TOP, null, 2))
+                .containsExactlyElementsOf(expected(item -> item.getCategory() == Category.TOP));
+        assertThat(walk(null, Season.WINTER, 2))
+                .containsExactlyElementsOf(expected(item -> item.getSeason() == Season.WINTER));
+        assertThat(walk(Category.TOP, Season.WINTER, 1)).containsExactlyElementsOf(expected(
+                item -> item.getCategory() == Category.TOP && item.getSeason() == Season.WINTER));
+    }
+
+    @Test
+    @DisplayName("A malformed cursor is rejected as a bad request")
+    void page_InvalidCursor() {
+        assertThatThrownBy(() -> service.getMyWardrobePage(userId, null, null, "not-a-cursor", 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private List<Long> walk(Category category, Season season, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            WardrobePageDto page = service.getMyWardrobePage(userId, category, season, cursor, size);
+            page.items().stream().map(WardrobeDto::id).forEach(ids::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> expected(Predicate<WardrobeItem> filter) {
+        return items.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(WardrobeItem::getCreatedAt)
+                        .thenComparing(WardrobeItem::getId)
+                        .reversed())
+                .map(WardrobeItem::getId)
+                .toList();
+    }
+
+    private User save(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("x")
+                .nickname("tester")
+                .role("ROLE_USER")
+                .build());
+    }
+
+    private static WardrobeItem item(User user, Category category, Season season) {
+        return WardrobeItem.builder()
+                .user(user)
+                .category(category)
+                .season(season)
+                .imageUrl("http://localhost/images/item.jpg")
+                .colors(new ArrayList<>())
+                .userSeasons(new ArrayList<>())
+                .build();
+    }
+}
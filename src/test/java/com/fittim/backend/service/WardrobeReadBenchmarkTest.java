@@ -0,0 +1,119 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.config.JpaConfig;
+import com.fittim.backend.dto.WardrobeDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entity hydration vs. projection for a 500-item wardrobe. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ JpaConfig.class, WardrobeReader.class })
+class WardrobeReadBenchmarkTest {
+
+    private static final int ITEMS = 500;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private WardrobeItemRepository wardrobeItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WardrobeReader wardrobeReader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .email("bench@example.com")
+                .password("x")
+                .nickname("bench")
+                .role("ROLE_USER")
+                .build());
+        userId = user.getId();
+
+        List<WardrobeItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(WardrobeItem.builder()
+                    .user(user)
+                    .category(Category.values()[i % Category.values().length])
+                    .season(Season.values()[i % Season.values().length])
+                    .imageUrl("http://localhost/images/" + i + ".jpg")
+                    .name("item " + i)
+                    .brand("brand " + (i % 10))
+                    .colors(new ArrayList<>(List.of("black", "white")))
+                    .userSeasons(new ArrayList<>(List.of("SPRING")))
+                    .build());
+        }
+        wardrobeItemRepository.saveAll(items);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectionVsEntityHydration() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        Result entity = measure(statistics, () -> wardrobeItemRepository
+                .findByUserIdAndCategoryAndSeason(userId, null, null).stream()
+                .map(WardrobeDto::from)
+                .collect(Collectors.toList()));
+        Result projection = measure(statistics, () -> wardrobeReader.toDtos(
+                wardrobeItemRepository.findRowsByUserIdAndCategoryAndSeason(userId, null, null)));
+
+        System.out.printf("[wardrobe read, %d items] entity: %d statements, %.2f ms/op | projection: %d statements, %.2f ms/op%n",
+                ITEMS, entity.statements(), entity.millisPerOp(), projection.statements(), projection.millisPerOp());
+
+        assertThat(projection.size()).isEqualTo(ITEMS);
+        assertThat(projection.statements()).isLessThanOrEqualTo(2);
+        assertThat(projection.statements()).isLessThan(entity.statements());
+    }
+
+    private Result measure(Statistics statistics, java.util.function.Supplier<List<WardrobeDto>> read) {
+        read.get(); // warm-up
+        entityManager.clear();
+
+        statistics.clear();
+        int size = read.get().size();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            read.get();
+            entityManager.clear();
+        }
+        double millisPerOp = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+        return new Result(size, statements, millisPerOp);
+    }
+
+    private record Result(int size, long statements, double millisPerOp) {
+    }
+}
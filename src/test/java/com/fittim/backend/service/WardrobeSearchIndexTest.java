@@ -0,0 +1,98 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class WardrobeSearchIndexTest {
+
+    @Test
+    @DisplayName("Tokens split on punctuation and script changes, lower-cased")
+    void tokenize_SplitsScripts() {
+        assertThat(WardrobeSearchIndex.tokenize("유니클로Shirt, Navy-오버핏"))
+                .containsExactly("유니클로", "shirt", "navy", "오버핏");
+    }
+
+    @Test
+    @DisplayName("Every token must prefix-match name, brand or color terms")
+    void search_IntersectsPrefixMatches() {
+        WardrobeSearchIndex.UserIndex index = new WardrobeSearchIndex.UserIndex();
+        index.put(1L, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("Oxford shirt", "Uniqlo", List.of("navy")));
+        index.put(2L, Category.TOP, Season.WINTER, WardrobeSearchIndex.terms("니트조끼", "Uniqlo", List.of("beige")));
+        index.put(3L, Category.BOTTOM, Season.ALL, WardrobeSearchIndex.terms("Wide slacks", "Musinsa", List.of("navy")));
+
+        assertThat(search(index, "the navy uniqlo shirt")).isEmpty(); // "the" matches nothing
+        assertThat(search(index, "navy uniq sh")).containsExactly(1L);
+        assertThat(search(index, "navy")).containsExactly(3L, 1L); // newest first
+        assertThat(search(index, "네이비")).containsExactly(3L, 1L); // Korean color alias
+        assertThat(search(index, "조끼")).containsExactly(2L); // Hangul suffix
+        assertThat(index.search(List.of("navy"), Category.BOTTOM, null, 10)).containsExactly(3L);
+        assertThat(index.search(List.of("uniqlo"), null, Season.WINTER, 10)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Updates replace old terms and deletes drop the item, across compactions")
+    void put_ReplacesAndRemoves() {
+        WardrobeSearchIndex.UserIndex index = new WardrobeSearchIndex.UserIndex();
+        index.put(1L, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("linen shirt", null, List.of()));
+        index.put(1L, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("cotton shirt", null, List.of()));
+        assertThat(search(index, "linen")).isEmpty();
+        assertThat(search(index, "cotton")).containsExactly(1L);
+
+        for (long id = 2; id < 200; id++) {
+            index.put(id, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("tee " + id, null, List.of()));
+            index.put(id, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("shirt " + id, null, List.of()));
+            if (id % 2 == 0) {
+                index.remove(id);
+            }
+        }
+        assertThat(search(index, "tee")).isEmpty();
+        assertThat(index.search(List.of("shirt"), Category.TOP, Season.SUMMER, 500)).hasSize(100);
+        assertThat(search(index, "shirt 199")).containsExactly(199L);
+    }
+
+    @Test
+    @DisplayName("An edited item keeps its place in the creation order")
+    void put_UpdateKeepsDocOrder() {
+        WardrobeSearchIndex.UserIndex index = new WardrobeSearchIndex.UserIndex();
+        index.put(1L, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("old shirt", null, List.of()));
+        index.put(2L, Category.TOP, Season.SUMMER, WardrobeSearchIndex.terms("new shirt", null, List.of()));
+
+        index.put(1L, Category.TOP, Season.WINTER, WardrobeSearchIndex.terms("flannel shirt", null, List.of()));
+
+        assertThat(search(index, "shirt")).containsExactly(2L, 1L);
+        assertThat(index.search(List.of("shirt"), null, Season.SUMMER, 10)).containsExactly(2L);
+        assertThat(index.search(List.of("shirt"), null, Season.WINTER, 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Indexes not searched since the last pass are evicted")
+    void evictIdle_DropsUnsearchedUsers() {
+        WardrobeItemRepository wardrobeItemRepository = mock(WardrobeItemRepository.class);
+        WardrobeSearchIndex searchIndex = new WardrobeSearchIndex(wardrobeItemRepository, mock(WardrobeReader.class));
+        searchIndex.search(1L, "shirt", null, null, 10);
+        searchIndex.search(2L, "shirt", null, null, 10);
+
+        searchIndex.evictIdle(); // both were searched; flags reset
+        searchIndex.search(1L, "shirt", null, null, 10);
+        searchIndex.evictIdle();
+
+        assertThat(searchIndex.size()).isEqualTo(1);
+        searchIndex.search(2L, "shirt", null, null, 10);
+        verify(wardrobeItemRepository, times(2)).findRowsByUserIdAndCategoryAndSeason(2L, null, null);
+    }
+
+    private static List<Long> search(WardrobeSearchIndex.UserIndex index, String query) {
+        return index.search(new ArrayList<>(WardrobeSearchIndex.tokenize(query)), null, null, 10);
+    }
+}
@@ -0,0 +1,175 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.dto.WardrobeBatchOperation;
+import com.fittim.backend.dto.WardrobeBatchResultDto;
+import com.fittim.backend.dto.WardrobeBulkItemRequest;
+import com.fittim.backend.dto.WardrobeBulkResultDto;
+import com.fittim.backend.dto.WardrobeUpdateDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.event.WardrobeItemChangedEvent;
+import com.fittim.backend.repository.SyncCounterRepository;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WardrobeServiceBatchTest {
+
+    private static final String EMAIL = "test@example.com";
+    private static final Long USER_ID = 7L;
+
+    private final WardrobeItemRepository wardrobeItemRepository = mock(WardrobeItemRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ImageStore imageStore = mock(ImageStore.class);
+    private final DuplicateIndex duplicateIndex = mock(DuplicateIndex.class);
+    private final SyncService syncService = mock(SyncService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private WardrobeService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = new WardrobeService(wardrobeItemRepository, userRepository, mock(WardrobeReader.class), imageStore,
+                mock(ImageHasher.class), duplicateIndex, mock(WardrobeSearchIndex.class), mock(WardrobeStats.class),
+                syncService, new ResourceVersionService(syncService, mock(SyncCounterRepository.class)), eventPublisher,
+                Runnable::run);
+        user = User.builder().email(EMAIL).build();
+        ReflectionTestUtils.setField(user, "id", USER_ID);
+    }
+
+    @Test
+    @DisplayName("Loads all owned items in one query and reports each operation separately")
+    void applyBatch_ReportsPerItemOutcomes() {
+        WardrobeItem shirt = item(1L, "shirt", "ab/cd/shirt.jpg");
+        WardrobeItem jeans = item(2L, "jeans", null);
+        // Item 3 belongs to someone else, so the ownership query does not return it
+        when(wardrobeItemRepository.findAllByIdInAndUserId(List.of(2L, 1L, 3L), USER_ID))
+                .thenReturn(List.of(shirt, jeans));
+
+        List<WardrobeBatchResultDto> results = service.applyBatch(USER_ID, List.of(
+                new WardrobeBatchOperation("patch", 2L, new WardrobeUpdateDto(null, null, null, null, Season.WINTER,
+                        List.of("FALL", "WINTER"))),
+                new WardrobeBatchOperation("delete", 1L, null),
+                new WardrobeBatchOperation("delete", 3L, null),
+                new WardrobeBatchOperation("patch", 1L, new WardrobeUpdateDto("renamed", null, null, null, null, null)),
+                new WardrobeBatchOperation("archive", 2L, null)));
+
+        assertThat(results).extracting(WardrobeBatchResultDto::success)
+                .containsExactly(true, true, false, false, false);
+        assertThat(results.get(0).item().season()).isEqualTo(Season.WINTER);
+        assertThat(results.get(0).item().name()).isEqualTo("jeans");
+        assertThat(results.get(2).error()).isEqualTo("Item not found");
+        assertThat(results.get(3).error()).isEqualTo("Item not found"); // already deleted in this batch
+
+        verify(wardrobeItemRepository).delete(shirt);
+        verify(wardrobeItemRepository, never()).delete(jeans);
+        verify(duplicateIndex, never()).remove(any(), any()); // applied after commit from the event
+        verify(eventPublisher).publishEvent(WardrobeItemChangedEvent.deleted(USER_ID, 1L));
+        verify(imageStore).release("ab/cd/shirt.jpg");
+        verify(syncService).recordWardrobeDeletion(USER_ID, 1L);
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Operations that would fail at flush are rejected individually instead of failing the batch")
+    void applyBatch_RejectsConstraintViolationsUpFront() {
+        WardrobeItem shirt = item(1L, "shirt", null);
+        WardrobeItem jeans = item(2L, "jeans", null);
+        WardrobeItem coat = item(3L, "coat", null);
+        when(wardrobeItemRepository.findAllByIdInAndUserId(List.of(1L, 2L, 3L), USER_ID))
+                .thenReturn(List.of(shirt, jeans, coat));
+        when(wardrobeItemRepository.findIdsReferencedByOutfits(List.of(1L, 3L))).thenReturn(List.of(1L));
+
+        List<WardrobeBatchResultDto> results = service.applyBatch(USER_ID, List.of(
+                new WardrobeBatchOperation("delete", 1L, null),
+                new WardrobeBatchOperation("patch", 2L, new WardrobeUpdateDto("x".repeat(256), null, null, null, null,
+                        null)),
+                new WardrobeBatchOperation("delete", 3L, null)));
+
+        assertThat(results).extracting(WardrobeBatchResultDto::success).containsExactly(false, false, true);
+        assertThat(results.get(0).error()).isEqualTo("Item is part of a saved outfit");
+        assertThat(jeans.getName()).isEqualTo("jeans");
+        verify(wardrobeItemRepository, never()).delete(shirt);
+        verify(wardrobeItemRepository).delete(coat);
+    }
+
+    @Test
+    @DisplayName("Rejects empty and oversized batches")
+    void applyBatch_RejectsBadSize() {
+        assertThatThrownBy(() -> service.applyBatch(USER_ID, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<WardrobeBatchOperation> tooMany = new ArrayList<>(
+                Collections.nCopies(101, new WardrobeBatchOperation("delete", 1L, null)));
+        assertThatThrownBy(() -> service.applyBatch(USER_ID, tooMany))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(wardrobeItemRepository, never()).findAllByIdInAndUserId(any(), eq(USER_ID));
+    }
+
+    @Test
+    @DisplayName("Bulk items whose text would not fit its columns fail on their own before any image is stored")
+    void uploadItems_RejectsOverlongTextPerItem() throws IOException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            when(userRepository.getReferenceById(USER_ID)).thenReturn(user);
+            when(imageStore.store(any())).thenReturn(new ImageStore.Stored("ab/cd/image.jpg", 1));
+            when(wardrobeItemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+            List<MultipartFile> images = Collections.nCopies(3,
+                    new MockMultipartFile("images", "item.jpg", "image/jpeg", new byte[] { 1 }));
+            List<String> nullColor = new ArrayList<>();
+            nullColor.add(null);
+
+            List<WardrobeBulkResultDto> results = service.uploadItems(USER_ID, images, List.of(
+                    new WardrobeBulkItemRequest("TOP", "SUMMER", "shirt", null, List.of(), List.of("white")),
+                    new WardrobeBulkItemRequest("TOP", "SUMMER", "x".repeat(256), null, List.of(), List.of()),
+                    new WardrobeBulkItemRequest("TOP", "SUMMER", "coat", null, List.of(), nullColor)));
+
+            assertThat(results).extracting(WardrobeBulkResultDto::success).containsExactly(true, false, false);
+            assertThat(results.get(1).error()).isEqualTo("name and brand must be at most 255 characters");
+            assertThat(results.get(2).error()).isEqualTo("colors must be non-null and at most 255 characters");
+            verify(imageStore, times(1)).store(any());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private WardrobeItem item(Long id, String name, String imageKey) {
+        WardrobeItem item = WardrobeItem.builder()
+                .user(user)
+                .category(Category.TOP)
+                .season(Season.SUMMER)
+                .imageKey(imageKey)
+                .name(name)
+                .userSeasons(new ArrayList<>(List.of("SUMMER")))
+                .colors(new ArrayList<>())
+                .build();
+        ReflectionTestUtils.setField(item, "id", id);
+        return item;
+    }
+}
@@ -0,0 +1,54 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WardrobeStatsTest {
+
+    @Test
+    @DisplayName("Updates subtract the previous snapshot before adding the new one")
+    void put_UpdatesCounters() {
+        WardrobeStats.UserStats stats = new WardrobeStats.UserStats();
+        stats.put(1L, Category.TOP, Season.SUMMER, "Uniqlo", List.of("navy", "white"));
+        stats.put(2L, Category.TOP, Season.WINTER, " Uniqlo ", List.of("navy"));
+        stats.put(3L, Category.BOTTOM, Season.ALL, "", List.of());
+
+        stats.put(1L, Category.OUTER, Season.SUMMER, "Musinsa", List.of("beige"));
+        stats.remove(3L);
+
+        WardrobeStats.Summary summary = stats.summary(5);
+        assertThat(summary.total()).isEqualTo(2);
+        assertThat(summary.categories()).isEqualTo(Map.of(Category.TOP, 1, Category.OUTER, 1));
+        assertThat(summary.seasons()).isEqualTo(Map.of(Season.SUMMER, 1, Season.WINTER, 1));
+        assertThat(summary.colors()).isEqualTo(Map.of("navy", 1, "beige", 1));
+        assertThat(summary.brands()).isEqualTo(Map.of("Uniqlo", 1, "Musinsa", 1));
+    }
+
+    @Test
+    @DisplayName("Least used items come first, oldest first among ties, and keep uses across updates")
+    void summary_LeastUsed() {
+        WardrobeStats.UserStats stats = new WardrobeStats.UserStats();
+        for (long id = 1; id <= 4; id++) {
+            stats.put(id, Category.TOP, Season.ALL, null, List.of());
+        }
+        stats.use(1L, 3);
+        stats.use(2L, 1);
+        stats.use(4L, 2);
+        stats.use(4L, -1);
+        stats.use(99L, 1); // unknown item is ignored
+        stats.put(1L, Category.TOP, Season.SUMMER, null, List.of());
+
+        assertThat(stats.summary(3).leastUsed()).containsExactly(
+                new WardrobeStats.ItemUses(3L, 0),
+                new WardrobeStats.ItemUses(2L, 1),
+                new WardrobeStats.ItemUses(4L, 1));
+        assertThat(stats.summary(10).leastUsed().get(3)).isEqualTo(new WardrobeStats.ItemUses(1L, 3));
+    }
+}
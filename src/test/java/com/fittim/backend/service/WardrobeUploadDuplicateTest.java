@@ -0,0 +1,143 @@
+package com.fittim.backend.service;
+
+import com.fittim.backend.config.JpaConfig;
+import com.fittim.backend.dto.WardrobeBulkItemRequest;
+import com.fittim.backend.dto.WardrobeBulkResultDto;
+import com.fittim.backend.entity.Category;
+import com.fittim.backend.entity.Season;
+import com.fittim.backend.entity.User;
+import com.fittim.backend.entity.WardrobeItem;
+import com.fittim.backend.repository.SyncCounterRepository;
+import com.fittim.backend.repository.UserRepository;
+import com.fittim.backend.repository.WardrobeItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bulk uploads against a duplicate index whose tree is not loaded yet. Runs outside the test
+ * transaction, so the upload commits or rolls back like it would in production.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WardrobeUploadDuplicateTest {
+
+    private static final long EXISTING_HASH = 0L;
+    private static final long FRESH_HASH = 0xFFFF_FFFF_0000_0000L;
+
+    @Autowired
+    private WardrobeItemRepository wardrobeItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ImageStore imageStore = mock(ImageStore.class);
+    private final ImageHasher imageHasher = mock(ImageHasher.class);
+    private WardrobeService service;
+    private TransactionTemplate transaction;
+    private Long userId;
+    private Long existingId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DuplicateIndex duplicateIndex = new DuplicateIndex(wardrobeItemRepository, transactionManager, 3);
+        SyncService syncService = mock(SyncService.class);
+        service = new WardrobeService(wardrobeItemRepository, userRepository, mock(WardrobeReader.class), imageStore,
+                imageHasher, duplicateIndex, mock(WardrobeSearchIndex.class), mock(WardrobeStats.class), syncService,
+                new ResourceVersionService(syncService, mock(SyncCounterRepository.class)),
+                mock(ApplicationEventPublisher.class), Runnable::run);
+        transaction = new TransactionTemplate(transactionManager);
+        given(imageStore.store(any())).willReturn(new ImageStore.Stored("ab/cd/image.jpg", 1));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        User user = userRepository.save(User.builder()
+                .email("upload@example.com")
+                .password("x")
+                .nickname("tester")
+                .role("ROLE_USER")
+                .build());
+        userId = user.getId();
+        existingId = wardrobeItemRepository.save(WardrobeItem.builder()
+                .user(user)
+                .category(Category.TOP)
+                .season(Season.ALL)
+                .imageUrl("http://localhost/images/existing.jpg")
+                .imageHash(EXISTING_HASH)
+                .colors(new ArrayList<>())
+                .userSeasons(new ArrayList<>())
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        wardrobeItemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A cold tree holds only committed items, so a bulk item never matches itself")
+    void uploadItems_ColdTreeNeverMatchesSelf() {
+        given(imageHasher.hash(any())).willReturn(EXISTING_HASH | 0b1, FRESH_HASH, FRESH_HASH | 0b1);
+
+        List<WardrobeBulkResultDto> results = transaction.execute(status -> upload(3));
+
+        assertThat(results).extracting(WardrobeBulkResultDto::success).containsOnly(true);
+        assertThat(results.get(0).duplicateOf()).isEqualTo(existingId);
+        assertThat(results.get(1).duplicateOf()).isNull();
+        assertThat(results.get(2).duplicateOf()).isEqualTo(results.get(1).item().id());
+    }
+
+    @Test
+    @DisplayName("Items of a rolled-back upload never reach the tree")
+    void uploadItems_RolledBackItemsStayOutOfTree() {
+        given(imageHasher.hash(any())).willReturn(FRESH_HASH);
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(upload(1).get(0).duplicateOf()).isNull();
+            status.setRollbackOnly();
+        });
+        List<WardrobeBulkResultDto> retried = transaction.execute(status -> upload(1));
+
+        assertThat(retried.get(0).success()).isTrue();
+        assertThat(retried.get(0).duplicateOf()).isNull();
+    }
+
+    private List<WardrobeBulkResultDto> upload(int count) {
+        List<MultipartFile> images = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            images.add(new MockMultipartFile("images", "item" + i + ".jpg", "image/jpeg", new byte[] { 1 }));
+        }
+        WardrobeBulkItemRequest request = new WardrobeBulkItemRequest("TOP", "SUMMER", "shirt", null, List.of(),
+                List.of("white"));
+        return service.uploadItems(userId, images, Collections.nCopies(count, request));
+    }
+}